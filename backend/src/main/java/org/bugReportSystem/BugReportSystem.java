@@ -2,12 +2,20 @@ package org.bugReportSystem;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Map;
 
 @SpringBootApplication
+@EnableScheduling
 public class BugReportSystem {
 
 	public static void main(String[] args) {
-		SpringApplication.run(BugReportSystem.class, args);
+		SpringApplication application = new SpringApplication(BugReportSystem.class);
+		// behind a reverse proxy the client address comes from X-Forwarded-For, which Tomcat only takes from
+		// server.tomcat.remoteip.internal-proxies (private and loopback addresses unless configured otherwise)
+		application.setDefaultProperties(Map.of("server.forward-headers-strategy", "native"));
+		application.run(args);
 	}
 
 }
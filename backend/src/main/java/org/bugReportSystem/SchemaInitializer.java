@@ -0,0 +1,96 @@
+package org.bugReportSystem;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class SchemaInitializer {
+    private static final Logger log = LoggerFactory.getLogger(SchemaInitializer.class);
+    // Postgres-specific schema that cannot be expressed with JPA annotations;
+    // the EntityManagerFactory dependency makes this run after Hibernate has updated the tables
+    private static final List<String> STATEMENTS = List.of(
+            """
+            ALTER TABLE issues ADD COLUMN IF NOT EXISTS search_vector tsvector
+                GENERATED ALWAYS AS (
+                    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+                    setweight(to_tsvector('english', coalesce(description, '')), 'B')
+                ) STORED
+            """,
+            "CREATE INDEX IF NOT EXISTS issues_search_vector_idx ON issues USING GIN (search_vector)",
+            """
+            ALTER TABLE issues_archive ADD COLUMN IF NOT EXISTS search_vector tsvector
+                GENERATED ALWAYS AS (
+                    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+                    setweight(to_tsvector('english', coalesce(description, '')), 'B')
+                ) STORED
+            """,
+            "CREATE INDEX IF NOT EXISTS issues_archive_search_vector_idx ON issues_archive USING GIN (search_vector)",
+            // issues created without a column were listed by the old findAll board, the per-column board needs one
+            "UPDATE issues SET status_column = 'BACKLOG' WHERE status_column IS NULL",
+            // Hibernate only writes enum check constraints when it creates a table, new change types would be rejected
+            "ALTER TABLE issue_events DROP CONSTRAINT IF EXISTS issue_events_type_check",
+            // events used to be numbered under a global lock, existing rows keep that number as their position
+            "CREATE SEQUENCE IF NOT EXISTS issue_events_position_seq",
+            """
+            DO $$
+            BEGIN
+                IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                               WHERE table_name = 'issue_events' AND column_name = 'tx_id') THEN
+                    UPDATE issue_events SET log_position = sequence WHERE log_position IS NULL;
+                    PERFORM setval('issue_events_position_seq', (SELECT COALESCE(MAX(sequence), 0) + 1 FROM issue_events));
+                    ALTER TABLE issue_events ADD COLUMN tx_id xid8 DEFAULT pg_current_xact_id();
+                END IF;
+            END $$
+            """,
+            "CREATE INDEX IF NOT EXISTS issue_events_unpositioned_idx ON issue_events (tx_id, sequence) WHERE log_position IS NULL",
+            """
+            SELECT setval('issue_events_pooled_seq', GREATEST((SELECT COALESCE(MAX(sequence), 0) FROM issue_events) + 50,
+                                                              (SELECT last_value FROM issue_events_pooled_seq)))
+            """,
+            // refresh tokens used to be stored in plain text, keep their digest and forget the token
+            """
+            DO $$
+            BEGIN
+                IF EXISTS (SELECT 1 FROM information_schema.columns
+                           WHERE table_name = 'token' AND column_name = 'content') THEN
+                    ALTER TABLE token ALTER COLUMN content DROP NOT NULL;
+                    DELETE FROM token a USING token b WHERE a.content = b.content AND a.id > b.id;
+                    UPDATE token SET digest = encode(sha256(convert_to(content, 'UTF8')), 'hex'),
+                                     expires_at = COALESCE(expires_at, now() + interval '1 day'),
+                                     content = NULL
+                        WHERE content IS NOT NULL;
+                END IF;
+            END $$
+            """,
+            // issues used to be IDENTITY generated, move the pooled sequence past any existing id
+            """
+            SELECT setval('issues_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM issues) + 50,
+                                                 (SELECT last_value FROM issues_seq)))
+            """
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            // e.g. H2 in tests, full-text search and the migrations are not available there
+            log.info("Skipping Postgres schema on {}", database);
+            return;
+        }
+        STATEMENTS.forEach(jdbcTemplate::execute);
+    }
+}
@@ -0,0 +1,39 @@
+package org.bugReportSystem.controllers;
+
+import org.bugReportSystem.services.IssueArchiveService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("api/archive")
+public class ArchiveController {
+    private final IssueArchiveService issueArchiveService;
+
+    public ArchiveController(IssueArchiveService issueArchiveService) {
+        this.issueArchiveService = issueArchiveService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getArchivedIssues(@RequestParam(required = false) Instant before,
+                                               @RequestParam(required = false) Integer size) {
+        return new ResponseEntity<>(issueArchiveService.getArchivedIssues(before, size), HttpStatus.OK);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchArchive(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(issueArchiveService.searchArchive(q, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getArchivedIssue(@PathVariable Integer id) {
+        return new ResponseEntity<>(issueArchiveService.getArchivedIssue(id), HttpStatus.OK);
+    }
+
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<?> restore(@PathVariable Integer id) {
+        return new ResponseEntity<>(issueArchiveService.restore(id), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,56 @@
+package org.bugReportSystem.controllers;
+
+import org.bugReportSystem.dtos.AttachmentDTO;
+import org.bugReportSystem.services.AttachmentService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("api/issues/{issueId}/attachments")
+public class AttachmentController {
+    private final AttachmentService attachmentService;
+
+    public AttachmentController(AttachmentService attachmentService) {
+        this.attachmentService = attachmentService;
+    }
+
+    // the raw request body is the file, multipart parsing would spool it before we see a byte
+    @PostMapping
+    public ResponseEntity<?> upload(@PathVariable Integer issueId, @RequestParam String fileName,
+                                    @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                    InputStream body) {
+        AttachmentDTO attachment = attachmentService.upload(issueId, fileName, contentType, body);
+        return new ResponseEntity<>(attachment, HttpStatus.CREATED);
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getAttachments(@PathVariable Integer issueId) {
+        return new ResponseEntity<>(attachmentService.getAttachments(issueId), HttpStatus.OK);
+    }
+
+    @GetMapping("/{attachmentId}")
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable Integer issueId, @PathVariable Integer attachmentId) {
+        AttachmentDTO attachment = attachmentService.getAttachment(issueId, attachmentId);
+        StreamingResponseBody body = outputStream -> attachmentService.download(attachment, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(attachment.contentType()))
+                .contentLength(attachment.size())
+                .eTag(attachment.sha256())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(attachment.fileName()).build().toString())
+                .body(body);
+    }
+
+    @DeleteMapping("/{attachmentId}")
+    public ResponseEntity<?> deleteAttachment(@PathVariable Integer issueId, @PathVariable Integer attachmentId) {
+        attachmentService.deleteAttachment(issueId, attachmentId);
+        return new ResponseEntity<>("Attachment deleted successfully", HttpStatus.OK);
+    }
+}
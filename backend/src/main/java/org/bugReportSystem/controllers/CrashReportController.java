@@ -0,0 +1,31 @@
+package org.bugReportSystem.controllers;
+
+import org.bugReportSystem.exception.ApiError;
+import org.bugReportSystem.requests.CrashReportRequest;
+import org.bugReportSystem.services.CrashReportIngestor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("api/crash-reports")
+public class CrashReportController {
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private final CrashReportIngestor crashReportIngestor;
+
+    public CrashReportController(CrashReportIngestor crashReportIngestor) {
+        this.crashReportIngestor = crashReportIngestor;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> report(@RequestBody CrashReportRequest report) {
+        if (!crashReportIngestor.offer(report)) {
+            ApiError error = new ApiError("Ingest", null, "Too many crash reports, retry later");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(error);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    }
+}
@@ -1,48 +1,195 @@
 package org.bugReportSystem.controllers;
 
+import org.bugReportSystem.dtos.IssueBoard;
 import org.bugReportSystem.dtos.IssueDTO;
+import org.bugReportSystem.dtos.IssueDetailsDTO;
+import org.bugReportSystem.entities.Issue;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.exception.ApiError;
+import org.bugReportSystem.exception.PreconditionFailedException;
+import org.bugReportSystem.exception.ResourceNotFoundException;
+import org.bugReportSystem.exception.ServiceUnavailableException;
+import org.bugReportSystem.requests.IssueBulkRequest;
+import org.bugReportSystem.requests.IssuePositionRequest;
 import org.bugReportSystem.requests.IssueUpdateRequest;
+import org.bugReportSystem.services.IdempotencyService;
+import org.bugReportSystem.services.IssueAggregateCounters;
+import org.bugReportSystem.services.IssueChangeLog;
+import org.bugReportSystem.services.IssueEventBroadcaster;
 import org.bugReportSystem.services.IssueService;
 import org.bugReportSystem.services.UserService;
+import org.bugReportSystem.validation.RequestValidators;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("api/issues")
 public class IssueController {
     private final IssueService issueService;
     private final UserService userService;
+    private final IssueEventBroadcaster issueEventBroadcaster;
+    private final IssueChangeLog issueChangeLog;
+    private final IssueAggregateCounters issueAggregateCounters;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public IssueController(IssueService issueService, UserService userService) {
+    public IssueController(IssueService issueService, UserService userService, IssueEventBroadcaster issueEventBroadcaster,
+                           IssueChangeLog issueChangeLog, IssueAggregateCounters issueAggregateCounters,
+                           IdempotencyService idempotencyService) {
         this.issueService = issueService;
         this.userService = userService;
+        this.issueEventBroadcaster = issueEventBroadcaster;
+        this.issueChangeLog = issueChangeLog;
+        this.issueAggregateCounters = issueAggregateCounters;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping
-    public ResponseEntity<?> addIssue(@RequestBody IssueDTO issueDTO) {
-        issueService.createIssue(issueDTO.title(), issueDTO.description(), issueDTO.reporterEmail());
-        return new ResponseEntity<>("Issue created successfully", HttpStatus.OK);
+    public ResponseEntity<?> addIssue(@RequestBody IssueDTO issueDTO,
+                                      @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        List<ApiError> errors = RequestValidators.ISSUE.validate(issueDTO);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+        }
+        return idempotencyService.execute("issues", idempotencyKey, issueDTO, () -> {
+            issueService.createIssue(issueDTO.title(), issueDTO.description(), issueDTO.reporterEmail());
+            return new ResponseEntity<>("Issue created successfully", HttpStatus.OK);
+        });
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<?> bulkUpdate(@RequestBody IssueBulkRequest request) {
+        return new ResponseEntity<>(issueService.bulkUpdate(request), HttpStatus.OK);
     }
 
+    // the tag is taken before the issues are read, a write in between only costs the client one more full response
     @GetMapping
-    public ResponseEntity<?> getIssues() {
-        return new ResponseEntity<>(issueService.getIssues(), HttpStatus.OK);
+    public ResponseEntity<?> getIssues(WebRequest request) {
+        String etag = issueService.getBoard().etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(issueService.getIssues());
+    }
+
+    @GetMapping("/board")
+    public ResponseEntity<?> getBoard(WebRequest request) {
+        IssueBoard board = issueService.getBoard();
+        if (request.checkNotModified(board.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(board.etag()).body(board.issues());
+    }
+
+    @GetMapping("/aggregates")
+    public ResponseEntity<?> getAggregates() {
+        return new ResponseEntity<>(issueAggregateCounters.getAggregates(), HttpStatus.OK);
+    }
+
+    @GetMapping("/board/{column}")
+    public ResponseEntity<?> getColumn(@PathVariable String column, WebRequest request) {
+        IssueBoard board = issueService.getBoard(IssueColumn.fromName(column));
+        if (request.checkNotModified(board.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(board.etag()).body(board.issues());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getIssue(@PathVariable String id, WebRequest request) {
+        Issue issue = issueService.getIssueById(id);
+        if (issue == null) {
+            throw new ResourceNotFoundException("Issue with id [%s] not found".formatted(id));
+        }
+        String etag = String.valueOf(issue.getVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(IssueDetailsDTO.from(issue));
+    }
+
+    @GetMapping("/{id}/duplicates")
+    public ResponseEntity<?> getDuplicates(@PathVariable Integer id, @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(issueService.findDuplicates(id, limit), HttpStatus.OK);
+    }
+
+    @PostMapping("/duplicates")
+    public ResponseEntity<?> findDuplicates(@RequestBody IssueDTO issueDTO, @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(issueService.findDuplicates(issueDTO, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<?> getIssuePage(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size,
+                                          @RequestParam(required = false) String column,
+                                          @RequestParam(required = false) String priority,
+                                          @RequestParam(required = false) Integer assignee,
+                                          @RequestParam(required = false) String reporterEmail) {
+        return new ResponseEntity<>(issueService.getIssuePage(cursor, size, column, priority, assignee, reporterEmail), HttpStatus.OK);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchIssues(@RequestParam("q") String query, @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(issueService.searchIssues(query, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(defaultValue = "0") long since, @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(issueChangeLog.getChangesSince(since, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/stream")
+    public SseEmitter streamIssueChanges() {
+        SseEmitter emitter = issueEventBroadcaster.subscribe();
+        if (emitter == null) {
+            throw new ServiceUnavailableException("Too many open issue streams");
+        }
+        return emitter;
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportIssues(@RequestParam(required = false) Integer after) {
+        StreamingResponseBody body = outputStream -> issueService.exportIssues(after, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PutMapping("/{id}/status")
-    public ResponseEntity<?> updateStatus(@PathVariable String id, @RequestParam String column) {
-        var issue = issueService.getIssueById(id);
-        issueService.updateStatus(issue, column);
-        return new ResponseEntity<>("Issue updated successfully", HttpStatus.OK);
+    public ResponseEntity<?> updateStatus(@PathVariable String id, @RequestParam String column,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var updated = issueService.updateStatus(id, column, versionFromIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(updated.version())).body("Issue updated successfully");
+    }
+
+    @PutMapping("/{id}/move")
+    public ResponseEntity<?> moveIssue(@PathVariable Integer id, @RequestBody IssuePositionRequest position,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var moved = issueService.moveIssue(id, position, versionFromIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(moved.version())).body(moved);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateIssue(@PathVariable String id, @RequestBody IssueUpdateRequest issue) {
-        issueService.updateIssue(issue);
-        return new ResponseEntity<>("Issue updated successfully", HttpStatus.OK);
+    public ResponseEntity<?> updateIssue(@PathVariable String id, @RequestBody IssueUpdateRequest issue,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        List<ApiError> errors = RequestValidators.ISSUE_UPDATE.validate(issue);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+        }
+        var updated = issueService.updateIssue(issue, versionFromIfMatch(ifMatch));
+        if (updated == null) {
+            return new ResponseEntity<>("Issue updated successfully", HttpStatus.OK);
+        }
+        return ResponseEntity.ok().eTag(String.valueOf(updated.getVersion())).body("Issue updated successfully");
     }
 
     @DeleteMapping("/{id}")
@@ -51,4 +198,16 @@ public class IssueController {
         return new ResponseEntity<>("Issue deleted successfully", HttpStatus.OK);
     }
 
+    private Long versionFromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.startsWith("W/") ? ifMatch.substring(2) : ifMatch;
+        try {
+            return Long.parseLong(etag.replace("\"", "").trim());
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Invalid If-Match header [%s]".formatted(ifMatch));
+        }
+    }
+
 }
@@ -0,0 +1,59 @@
+package org.bugReportSystem.controllers;
+
+import org.bugReportSystem.security.TokenRevocationList;
+import org.bugReportSystem.services.CrashReportIngestor;
+import org.bugReportSystem.services.IssueService;
+import org.bugReportSystem.services.PasswordHasher;
+import org.bugReportSystem.services.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("api/metrics")
+public class MetricsController {
+    private final IssueService issueService;
+    private final CrashReportIngestor crashReportIngestor;
+    private final PasswordHasher passwordHasher;
+    private final TokenRevocationList tokenRevocationList;
+    private final UserService userService;
+
+    @Autowired
+    public MetricsController(IssueService issueService, CrashReportIngestor crashReportIngestor,
+                             PasswordHasher passwordHasher, TokenRevocationList tokenRevocationList,
+                             UserService userService) {
+        this.issueService = issueService;
+        this.crashReportIngestor = crashReportIngestor;
+        this.passwordHasher = passwordHasher;
+        this.tokenRevocationList = tokenRevocationList;
+        this.userService = userService;
+    }
+
+    @GetMapping("board-cache")
+    public ResponseEntity<?> getBoardCacheStats() {
+        return new ResponseEntity<>(issueService.getBoardCacheStats(), HttpStatus.OK);
+    }
+
+    @GetMapping("crash-reports")
+    public ResponseEntity<?> getCrashReportStats() {
+        return new ResponseEntity<>(crashReportIngestor.getStats(), HttpStatus.OK);
+    }
+
+    @GetMapping("user-cache")
+    public ResponseEntity<?> getUserCacheStats() {
+        return new ResponseEntity<>(userService.getUserCacheStats(), HttpStatus.OK);
+    }
+
+    @GetMapping("password-hashing")
+    public ResponseEntity<?> getPasswordHashingStats() {
+        return new ResponseEntity<>(passwordHasher.getStats(), HttpStatus.OK);
+    }
+
+    @GetMapping("token-revocations")
+    public ResponseEntity<?> getTokenRevocationStats() {
+        return new ResponseEntity<>(tokenRevocationList.getStats(), HttpStatus.OK);
+    }
+}
@@ -2,37 +2,45 @@ package org.bugReportSystem.controllers;
 
 import org.bugReportSystem.exception.ApiError;
 import org.bugReportSystem.requests.LoginRequest;
+import org.bugReportSystem.security.LoginThrottle;
 import org.bugReportSystem.services.TokenService;
 import org.bugReportSystem.services.UserService;
+import org.bugReportSystem.validation.RequestValidators;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Objects;
+import java.util.List;
 
 @RestController
 @RequestMapping("api/auth")
 public class TokenController {
     private final UserService userService;
     private final TokenService tokenService;
+    private final LoginThrottle loginThrottle;
 
-    public TokenController(UserService userService, TokenService tokenService) {
+    public TokenController(UserService userService, TokenService tokenService, LoginThrottle loginThrottle) {
         this.userService = userService;
         this.tokenService = tokenService;
+        this.loginThrottle = loginThrottle;
     }
 
     @PostMapping("login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest requestBody) {
-        if ((requestBody.email() == null && requestBody.password() == null) || (Objects.equals(requestBody.email(), "") && Objects.equals(requestBody.password(), ""))) {
-            ApiError error = new ApiError("Validation", "Both", "Missing data");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        } else if (requestBody.email() == null || requestBody.email().isEmpty()) {
-            ApiError error = new ApiError("Validation", "E-mail", "Missing e-mail");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        } else if (requestBody.password() == null || requestBody.password().isEmpty()) {
-            ApiError error = new ApiError("Validation", "Password", "Missing password");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    public ResponseEntity<?> login(@RequestBody LoginRequest requestBody, HttpServletRequest request) {
+        List<ApiError> errors = RequestValidators.LOGIN.validate(requestBody);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors.get(0));
         } else {
+            // before any database or password work
+            long retryAfterSeconds = loginThrottle.acquire(requestBody.email(), request.getRemoteAddr());
+            if (retryAfterSeconds > 0) {
+                ApiError error = new ApiError("Access", null, "Too many login attempts, retry later");
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                        .body(error);
+            }
             return tokenService.loginUser(requestBody.email(), requestBody.password(), userService);
         }
     }
@@ -7,16 +7,22 @@ import org.bugReportSystem.exception.ApiError;
 import org.bugReportSystem.repositories.TokenResetRepository;
 import org.bugReportSystem.repositories.UserRepository;
 import org.bugReportSystem.requests.*;
+import org.bugReportSystem.services.IdempotencyService;
+import org.bugReportSystem.services.PasswordHasher;
 import org.bugReportSystem.services.TokenService;
+import org.bugReportSystem.services.UserImportService;
 import org.bugReportSystem.services.UserService;
+import org.bugReportSystem.validation.RequestValidators;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
 
 @CrossOrigin(origins = "http://localhost:3000")
@@ -28,14 +34,20 @@ public class UserController {
     private final MailService mailService;
     private final UserRepository userRepository;
     private final TokenResetRepository tokenResetRepository;
+    private final IdempotencyService idempotencyService;
+    private final PasswordHasher passwordHasher;
+    private final UserImportService userImportService;
 
     @Autowired
-    public UserController(UserService userService, TokenService tokenService, MailService mailService, UserRepository userRepository, TokenResetRepository tokenResetRepository) {
+    public UserController(UserService userService, TokenService tokenService, MailService mailService, UserRepository userRepository, TokenResetRepository tokenResetRepository, IdempotencyService idempotencyService, PasswordHasher passwordHasher, UserImportService userImportService) {
         this.userService = userService;
         this.tokenService = tokenService;
         this.mailService = mailService;
         this.userRepository = userRepository;
         this.tokenResetRepository = tokenResetRepository;
+        this.idempotencyService = idempotencyService;
+        this.passwordHasher = passwordHasher;
+        this.userImportService = userImportService;
     }
 
     @GetMapping("{uuid}")
@@ -49,15 +61,38 @@ public class UserController {
         return userService.getUserDetails(userId, userService, httpRequest);
     }
 
+    @GetMapping("search")
+    public ResponseEntity<?> searchUsers(@RequestParam("q") String query, @RequestParam(required = false) Integer limit,
+                                         HttpServletRequest httpRequest) {
+        return userService.searchUsers(query, limit, httpRequest);
+    }
+
     @GetMapping("email/{email}")
     public User getUserByEmail(@PathVariable("email") String email) {
         return userService.getUserByEmail(email);
     }
 
     @PostMapping
-    public ResponseEntity<?> addUser(@RequestBody UserRegistrationRequest request) {
-        ResponseEntity<?> response = userService.addUser(request);
-        return ResponseEntity.status(response.getStatusCode()).body(response.getBody());
+    public ResponseEntity<?> addUser(@RequestBody UserRegistrationRequest request,
+                                     @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        ResponseEntity<?> response = idempotencyService.execute("users", idempotencyKey, request, () -> {
+            ResponseEntity<?> created = userService.addUser(request);
+            return ResponseEntity.status(created.getStatusCode()).body(created.getBody());
+        });
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        // only the new user's id is stored for replays, the token is minted per response and never persisted
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+        headers.remove(HttpHeaders.CONTENT_TYPE);
+        Integer userId = Integer.valueOf(String.valueOf(response.getBody()));
+        return ResponseEntity.status(response.getStatusCode()).headers(headers).body(userService.registrationToken(userId));
+    }
+
+    @PostMapping(value = "import", consumes = {UserImportService.CSV, UserImportService.NDJSON})
+    public ResponseEntity<?> importUsers(HttpServletRequest request) throws IOException {
+        return userImportService.importUsers(request);
     }
 
     @DeleteMapping("{id}")
@@ -91,21 +126,20 @@ public class UserController {
 
     @PatchMapping("reset-pass/{token}")
     public ResponseEntity<?> resetPassword(@PathVariable String token, @RequestBody PasswordResetRequest body) {
-        if (!body.password().equals(body.retPassword())) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Passwords should be the same.");
+        List<ApiError> errors = RequestValidators.PASSWORD_RESET.validate(body);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors.get(0).getMessage());
         }
-        String newPassword = body.password();
-        newPassword = BCrypt.hashpw(newPassword, BCrypt.gensalt(12));
         PasswordResetToken reset = tokenResetRepository.findByToken(token);
         if (!userService.hasExpired(reset.getExpiryDateTime())) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired token.");
         }
+        String newPassword = passwordHasher.hash(body.password());
 
         String email = reset.getUser().getEmail();
         var user = userRepository.findByEmail(email);
         if (user.isPresent() && (!Objects.equals(newPassword, user.get().getPassword()))) {
-            user.get().setPassword(newPassword);
-            userRepository.save(user.get());
+            userService.updatePasswordHash(user.get(), newPassword);
             return ResponseEntity.ok().build();
         }
 
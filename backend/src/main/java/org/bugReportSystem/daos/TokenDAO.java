@@ -4,6 +4,8 @@ import org.bugReportSystem.entities.Token;
 import org.bugReportSystem.repositories.TokenRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,23 +16,31 @@ public class TokenDAO {
         this.tokenRepository = tokenRepository;
     }
 
-    public void addToken(Token token) {
-        tokenRepository.save(token);
+    // returns the older tokens of the user dropped to stay within maxPerUser
+    public List<Token> addToken(Token token, int maxPerUser) {
+        tokenRepository.insert(token.getUserID(), token.getDigest(), token.getExpiresAt());
+        List<Token> dropped = tokenRepository.findOldest(token.getUserID(), maxPerUser);
+        tokenRepository.deleteAllInBatch(dropped);
+        return dropped;
     }
 
     public Optional<Token> getTokenById(Integer userID) {
         return tokenRepository.findById(userID);
     }
 
-    public Optional<Token> getTokenByContent(String token) {
-        return tokenRepository.findByContent(token);
+    public Optional<Token> getTokenByDigest(String digest) {
+        return tokenRepository.findByDigest(digest);
     }
 
-    public void deleteByContent(String tokenContent) {
-        tokenRepository.deleteByContent(tokenContent);
+    public void deleteByDigest(String digest) {
+        tokenRepository.deleteByDigest(digest);
     }
 
     public void deleteAllTokens(Integer userID) {
         tokenRepository.deleteAllByUserID(userID);
     }
+
+    public int deleteExpired(Instant now, int batchSize) {
+        return tokenRepository.deleteExpired(now, batchSize);
+    }
 }
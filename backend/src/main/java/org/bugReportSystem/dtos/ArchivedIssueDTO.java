@@ -0,0 +1,17 @@
+package org.bugReportSystem.dtos;
+
+import org.bugReportSystem.entities.ArchivedIssue;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+
+import java.time.Instant;
+
+public record ArchivedIssueDTO(Integer id, String title, String description, IssueColumn column, Priority priority,
+                               String reporterEmail, Integer assigneeId, int occurrences, Instant updatedAt,
+                               Instant archivedAt) {
+    public static ArchivedIssueDTO from(ArchivedIssue issue) {
+        return new ArchivedIssueDTO(issue.getId(), issue.getTitle(), issue.getDescription(), issue.getColumn(),
+                issue.getPriority(), issue.getReporterEmail(), issue.getAssigneeId(), issue.getOccurrences(),
+                issue.getUpdatedAt(), issue.getArchivedAt());
+    }
+}
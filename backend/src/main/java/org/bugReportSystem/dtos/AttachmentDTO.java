@@ -0,0 +1,13 @@
+package org.bugReportSystem.dtos;
+
+import org.bugReportSystem.entities.Attachment;
+
+import java.time.Instant;
+
+public record AttachmentDTO(Integer id, Integer issueId, String fileName, String contentType, long size, String sha256,
+                            Instant createdAt) {
+    public static AttachmentDTO from(Attachment attachment) {
+        return new AttachmentDTO(attachment.getId(), attachment.getIssueId(), attachment.getFileName(),
+                attachment.getContentType(), attachment.getSize(), attachment.getSha256(), attachment.getCreatedAt());
+    }
+}
@@ -0,0 +1,8 @@
+package org.bugReportSystem.dtos;
+
+public record CacheStats(long hits, long misses, double hitRatio, long evictions, long size) {
+    public static CacheStats of(long hits, long misses, long evictions, long size) {
+        long lookups = hits + misses;
+        return new CacheStats(hits, misses, lookups == 0 ? 0 : (double) hits / lookups, evictions, size);
+    }
+}
@@ -0,0 +1,4 @@
+package org.bugReportSystem.dtos;
+
+public record IngestStats(int queued, long accepted, long rejected, long persisted, long dropped) {
+}
@@ -0,0 +1,11 @@
+package org.bugReportSystem.dtos;
+
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record IssueAggregates(long total, Map<IssueColumn, Long> columns, Map<Priority, Long> priorities,
+                              Map<Integer, Long> assignees, long unassigned, Instant reconciledAt) {
+}
@@ -0,0 +1,8 @@
+package org.bugReportSystem.dtos;
+
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+
+public record IssueBoardRow(Integer id, String title, IssueColumn column, Priority priority, String rank,
+                            Integer assigneeId, String assigneeName, long version) {
+}
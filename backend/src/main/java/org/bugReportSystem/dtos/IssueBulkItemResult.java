@@ -0,0 +1,26 @@
+package org.bugReportSystem.dtos;
+
+// index is the position within the request's create, update or move list
+public record IssueBulkItemResult(Operation operation, int index, Integer id, Status status, String error) {
+    public enum Operation {
+        CREATE,
+        UPDATE,
+        MOVE
+    }
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        MOVED,
+        NOT_FOUND
+    }
+
+    public static IssueBulkItemResult done(Operation operation, int index, Integer id, Status status) {
+        return new IssueBulkItemResult(operation, index, id, status, null);
+    }
+
+    public static IssueBulkItemResult notFound(Operation operation, int index, Integer id) {
+        return new IssueBulkItemResult(operation, index, id, Status.NOT_FOUND,
+                "Issue with id [%s] not found".formatted(id));
+    }
+}
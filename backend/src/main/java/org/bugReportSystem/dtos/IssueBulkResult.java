@@ -0,0 +1,7 @@
+package org.bugReportSystem.dtos;
+
+import java.util.List;
+
+// counts for a quick summary, one item per operation in request order (creates, then updates, then moves)
+public record IssueBulkResult(int created, int updated, int moved, List<IssueBulkItemResult> items) {
+}
@@ -0,0 +1,6 @@
+package org.bugReportSystem.dtos;
+
+import org.bugReportSystem.enums.IssueChangeType;
+
+public record IssueChangeEntry(long sequence, IssueChangeType type, Integer issueId, IssueDetailsDTO issue) {
+}
@@ -0,0 +1,9 @@
+package org.bugReportSystem.dtos;
+
+import org.bugReportSystem.enums.IssueChangeType;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+
+public record IssueChangeMessage(IssueChangeType type, Integer id, IssueColumn column, Priority priority,
+                                 String rank, long version) {
+}
@@ -0,0 +1,6 @@
+package org.bugReportSystem.dtos;
+
+import java.util.List;
+
+public record IssueChanges(List<IssueChangeEntry> changes, long next, boolean hasMore) {
+}
@@ -0,0 +1,26 @@
+package org.bugReportSystem.dtos;
+
+import org.bugReportSystem.entities.Issue;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+
+public record IssueDetailsDTO(Integer id, String title, String description, IssueColumn column, Priority priority,
+                              String rank, String reporterEmail, Integer assigneeId, int occurrences,
+                              long version) {
+    public static IssueDetailsDTO from(Issue issue) {
+        return new IssueDetailsDTO(issue.getId(), issue.getTitle(), issue.getDescription(), issue.getColumn(),
+                issue.getPriority(), issue.getRank(), issue.getReporterEmail(),
+                issue.getAssignee() == null ? null : issue.getAssignee().getId(), issue.getOccurrences(),
+                issue.getVersion());
+    }
+
+    public IssueDetailsDTO withRank(String rank) {
+        return new IssueDetailsDTO(id, title, description, column, priority, rank, reporterEmail, assigneeId, occurrences,
+                version);
+    }
+
+    public IssueDetailsDTO withColumn(IssueColumn column, long version) {
+        return new IssueDetailsDTO(id, title, description, column, priority, rank, reporterEmail, assigneeId, occurrences,
+                version);
+    }
+}
@@ -0,0 +1,7 @@
+package org.bugReportSystem.dtos;
+
+import org.bugReportSystem.enums.IssueColumn;
+
+// distance is the number of differing SimHash bits, 0 means the same wording
+public record IssueDuplicate(Integer id, String title, IssueColumn column, int distance) {
+}
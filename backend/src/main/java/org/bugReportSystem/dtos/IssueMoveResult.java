@@ -0,0 +1,44 @@
+package org.bugReportSystem.dtos;
+
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+
+public interface IssueMoveResult {
+    Integer getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getIssueColumn();
+
+    String getPriority();
+
+    String getRank();
+
+    String getReporterEmail();
+
+    Integer getAssigneeId();
+
+    Integer getOccurrences();
+
+    Long getVersion();
+
+    String getPreviousColumn();
+
+    String getPreviousRank();
+
+    default IssueDetailsDTO toDetails() {
+        return new IssueDetailsDTO(getId(), getTitle(), getDescription(),
+                getIssueColumn() == null ? null : IssueColumn.valueOf(getIssueColumn()),
+                getPriority() == null ? null : Priority.valueOf(getPriority()), getRank(), getReporterEmail(),
+                getAssigneeId(), getOccurrences(), getVersion());
+    }
+
+    default IssueDetailsDTO toPreviousDetails() {
+        return new IssueDetailsDTO(getId(), getTitle(), getDescription(),
+                getPreviousColumn() == null ? null : IssueColumn.valueOf(getPreviousColumn()),
+                getPriority() == null ? null : Priority.valueOf(getPriority()), getPreviousRank(), getReporterEmail(),
+                getAssigneeId(), getOccurrences(), getVersion() - 1);
+    }
+}
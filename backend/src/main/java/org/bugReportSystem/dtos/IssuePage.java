@@ -0,0 +1,6 @@
+package org.bugReportSystem.dtos;
+
+import java.util.List;
+
+public record IssuePage(List<IssueDetailsDTO> issues, String nextCursor) {
+}
@@ -0,0 +1,15 @@
+package org.bugReportSystem.dtos;
+
+public interface IssueSearchResult {
+    Integer getId();
+
+    String getTitle();
+
+    String getIssueColumn();
+
+    Float getRank();
+
+    String getTitleHighlight();
+
+    String getDescriptionHighlight();
+}
@@ -0,0 +1,5 @@
+package org.bugReportSystem.dtos;
+
+public record PasswordHashingStats(int queued, int active, long hashes, long verifications, long rehashes,
+                                   long rejected, double averageHashMillis, double averageVerifyMillis) {
+}
@@ -0,0 +1,5 @@
+package org.bugReportSystem.dtos;
+
+public record RevocationStats(boolean synced, int filteredTokens, int recentTokens, int revokedUsers,
+                             long localChecks, long databaseChecks) {
+}
@@ -0,0 +1,4 @@
+package org.bugReportSystem.dtos;
+
+public record UserImportError(long line, String email, String field, String message) {
+}
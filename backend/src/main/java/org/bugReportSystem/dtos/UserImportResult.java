@@ -0,0 +1,7 @@
+package org.bugReportSystem.dtos;
+
+import java.util.List;
+
+// errors holds at most the first UserImportService.MAX_REPORTED_ERRORS rows, failed counts all of them
+public record UserImportResult(long imported, long failed, List<UserImportError> errors) {
+}
@@ -0,0 +1,4 @@
+package org.bugReportSystem.dtos;
+
+public record UserSearchResult(Integer id, String firstname, String lastname, String email) {
+}
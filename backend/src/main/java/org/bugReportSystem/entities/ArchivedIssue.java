@@ -0,0 +1,129 @@
+package org.bugReportSystem.entities;
+
+import jakarta.persistence.*;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+
+import java.time.Instant;
+
+// cold copy of an issue, keeps the original id so attachments and the change log still point at it
+@Entity
+@Table(name = "issues_archive", indexes = {
+        @Index(name = "issues_archive_archived_at_idx", columnList = "archived_at")
+})
+public class ArchivedIssue {
+    @Id
+    @Column(name = "id", updatable = false)
+    private Integer id;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "description", nullable = false)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_column")
+    private IssueColumn column;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority")
+    private Priority priority;
+
+    @Column(name = "board_rank", length = 64)
+    private String rank;
+
+    @Column(name = "reporter_email", nullable = false)
+    private String reporterEmail;
+
+    @Column(name = "assignee_id")
+    private Integer assigneeId;
+
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
+    @Column(name = "occurrences", nullable = false)
+    private int occurrences;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    public ArchivedIssue() {
+    }
+
+    public static ArchivedIssue from(Issue issue, Instant archivedAt) {
+        ArchivedIssue archived = new ArchivedIssue();
+        archived.id = issue.getId();
+        archived.title = issue.getTitle();
+        archived.description = issue.getDescription();
+        archived.column = issue.getColumn();
+        archived.priority = issue.getPriority();
+        archived.rank = issue.getRank();
+        archived.reporterEmail = issue.getReporterEmail();
+        archived.assigneeId = issue.getAssignee() == null ? null : issue.getAssignee().getId();
+        archived.fingerprint = issue.getFingerprint();
+        archived.occurrences = issue.getOccurrences();
+        archived.version = issue.getVersion();
+        archived.updatedAt = issue.getUpdatedAt();
+        archived.archivedAt = archivedAt;
+        return archived;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public IssueColumn getColumn() {
+        return column;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public String getRank() {
+        return rank;
+    }
+
+    public String getReporterEmail() {
+        return reporterEmail;
+    }
+
+    public Integer getAssigneeId() {
+        return assigneeId;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,76 @@
+package org.bugReportSystem.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "issue_attachments", indexes = {
+        @Index(name = "issue_attachments_issue_id_idx", columnList = "issue_id"),
+        @Index(name = "issue_attachments_sha256_idx", columnList = "sha256")
+})
+public class Attachment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Integer id;
+
+    @Column(name = "issue_id", nullable = false)
+    private Integer issueId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    // content address of the stored object, shared by every attachment with the same bytes
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public Attachment() {
+    }
+
+    public Attachment(Integer issueId, String fileName, String contentType, long size, String sha256, Instant createdAt) {
+        this.issueId = issueId;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.sha256 = sha256;
+        this.createdAt = createdAt;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Integer getIssueId() {
+        return issueId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,74 @@
+package org.bugReportSystem.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idempotency_keys_created_at_idx", columnList = "created_at")
+})
+public class IdempotencyRecord {
+    // scope and client key, e.g. "issues:3f0c..."
+    @Id
+    @Column(name = "idempotency_key", length = 300, updatable = false)
+    private String key;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // null while the first request is still running
+    @Column(name = "status")
+    private Integer status;
+
+    @Column(name = "content_kind", length = 16)
+    private String contentKind;
+
+    @Column(name = "body", columnDefinition = "text")
+    private String body;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // the node running the first request, another one may take over once the lease ran out
+    @Column(name = "owner", length = 36)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    public IdempotencyRecord() {
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public String getContentKind() {
+        return contentKind;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public Instant getLeaseUntil() {
+        return leaseUntil;
+    }
+}
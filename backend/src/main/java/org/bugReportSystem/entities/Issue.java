@@ -4,19 +4,30 @@ import jakarta.persistence.*;
 import org.bugReportSystem.enums.IssueColumn;
 import org.bugReportSystem.enums.Priority;
 
+import java.time.Instant;
+
 
 @Entity
-@Table(name = "issues")
+@Table(name = "issues", indexes = {
+        @Index(name = "issues_status_column_id_idx", columnList = "status_column, id"),
+        @Index(name = "issues_status_column_rank_idx", columnList = "status_column, board_rank"),
+        @Index(name = "issues_status_column_updated_at_idx", columnList = "status_column, updated_at"),
+        @Index(name = "issues_priority_id_idx", columnList = "priority, id"),
+        @Index(name = "issues_assignee_id_id_idx", columnList = "assignee_id, id"),
+        @Index(name = "issues_reporter_email_id_idx", columnList = "reporterEmail, id"),
+        @Index(name = "issues_fingerprint_idx", columnList = "fingerprint", unique = true)
+})
 public class Issue {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenceGenerator(name = "issues_seq", sequenceName = "issues_seq", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "issues_seq")
     @Column(name = "id", updatable = false)
     private Integer id;
 
     @Column(name = "title", nullable = false)
     private String title;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assignee_id")
     private User assignee;
 
@@ -24,6 +35,9 @@ public class Issue {
     @Column(name = "status_column")
     private IssueColumn column;
 
+    @Column(name = "board_rank", length = 64)
+    private String rank;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "priority")
     private Priority priority;
@@ -34,9 +48,33 @@ public class Issue {
     @Column(name = "reporterEmail", nullable = false)
     private String reporterEmail;
 
+    // set for issues filed from crash reports, equal stack traces share one issue
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
+    @Column(name = "occurrences", nullable = false, columnDefinition = "integer default 1")
+    private int occurrences = 1;
+
+    @Column(name = "updated_at", nullable = false, columnDefinition = "timestamp(6) with time zone default now()")
+    private Instant updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     public Issue() {
     }
 
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+        // the board is built per column, an issue without one would never be listed
+        if (column == null) {
+            column = IssueColumn.BACKLOG;
+        }
+    }
+
     public Issue(String title, IssueColumn column, Priority priority, String description, String reporterEmail) {
         this.title = title;
         this.column = column;
@@ -47,6 +85,7 @@ public class Issue {
 
     public Issue(String title, String description, String reporterEmail) {
         this.title = title;
+        this.column = IssueColumn.BACKLOG;
         this.description = description;
         this.reporterEmail = reporterEmail;
     }
@@ -75,6 +114,14 @@ public class Issue {
         this.column = column;
     }
 
+    public String getRank() {
+        return rank;
+    }
+
+    public void setRank(String rank) {
+        this.rank = rank;
+    }
+
     public Priority getPriority() {
         return priority;
     }
@@ -106,4 +153,28 @@ public class Issue {
     public void setReporterEmail(String reporterEmail) {
         this.reporterEmail = reporterEmail;
     }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(int occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
 }
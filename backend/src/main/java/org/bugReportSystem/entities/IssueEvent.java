@@ -0,0 +1,72 @@
+package org.bugReportSystem.entities;
+
+import jakarta.persistence.*;
+import org.bugReportSystem.enums.IssueChangeType;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "issue_events", indexes = {
+        @Index(name = "issue_events_issue_id_idx", columnList = "issue_id"),
+        @Index(name = "issue_events_created_at_idx", columnList = "created_at"),
+        @Index(name = "issue_events_log_position_idx", columnList = "log_position", unique = true)
+})
+public class IssueEvent {
+    // only an id, handed out in blocks; clients follow the commit-ordered position
+    @Id
+    @SequenceGenerator(name = "issue_events_seq", sequenceName = "issue_events_pooled_seq", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "issue_events_seq")
+    @Column(name = "sequence", updatable = false)
+    private Long sequence;
+
+    // null until every transaction that could still commit an earlier event has ended, see IssueChangeLog
+    @Column(name = "log_position", insertable = false, updatable = false)
+    private Long position;
+
+    @Column(name = "issue_id", nullable = false, updatable = false)
+    private Integer issueId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false)
+    private IssueChangeType type;
+
+    @Column(name = "payload", nullable = false, updatable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public IssueEvent() {
+    }
+
+    public IssueEvent(Integer issueId, IssueChangeType type, String payload, Instant createdAt) {
+        this.issueId = issueId;
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public Long getPosition() {
+        return position;
+    }
+
+    public Integer getIssueId() {
+        return issueId;
+    }
+
+    public IssueChangeType getType() {
+        return type;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,41 @@
+package org.bugReportSystem.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "issue_event_compactions")
+public class IssueEventCompaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Integer id;
+
+    // highest position whose deletion tombstone was purged, clients behind it have to reload the board
+    @Column(name = "horizon", nullable = false)
+    private long horizon;
+
+    @Column(name = "compacted_at", nullable = false)
+    private Instant compactedAt;
+
+    public IssueEventCompaction() {
+    }
+
+    public IssueEventCompaction(long horizon, Instant compactedAt) {
+        this.horizon = horizon;
+        this.compactedAt = compactedAt;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public long getHorizon() {
+        return horizon;
+    }
+
+    public Instant getCompactedAt() {
+        return compactedAt;
+    }
+}
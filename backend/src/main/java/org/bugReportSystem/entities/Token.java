@@ -2,10 +2,16 @@ package org.bugReportSystem.entities;
 
 import jakarta.persistence.*;
 
+import java.time.Instant;
 import java.util.Objects;
 
+// refresh tokens are kept as a SHA-256 digest, the token itself is only known to the client
 @Entity
-@Table(name = "token")
+@Table(name = "token", indexes = {
+        @Index(name = "token_digest_idx", columnList = "digest", unique = true),
+        @Index(name = "token_user_id_id_idx", columnList = "user_id, id"),
+        @Index(name = "token_expires_at_idx", columnList = "expires_at")
+})
 
 public class Token {
     @Id
@@ -14,15 +20,18 @@ public class Token {
     private Integer id;
     @Column(name = "user_id", updatable = false)
     private Integer userID;
-    @Column(name = "content", nullable = false)
-    private String content;
+    @Column(name = "digest", length = 64, updatable = false)
+    private String digest;
+    @Column(name = "expires_at")
+    private Instant expiresAt;
 
     public Token() {
     }
 
-    public Token(Integer userID, String content) {
+    public Token(Integer userID, String digest, Instant expiresAt) {
         this.userID = userID;
-        this.content = content;
+        this.digest = digest;
+        this.expiresAt = expiresAt;
     }
 
     public Integer getId() {
@@ -41,12 +50,20 @@ public class Token {
         this.userID = id;
     }
 
-    public String getContent() {
-        return content;
+    public String getDigest() {
+        return digest;
     }
 
-    public void setContent(String content) {
-        this.content = content;
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
     }
 
     @Override
@@ -54,12 +71,12 @@ public class Token {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Token token = (Token) o;
-        return Objects.equals(id, token.id) && Objects.equals(userID, token.userID) && Objects.equals(content, token.content);
+        return Objects.equals(id, token.id) && Objects.equals(userID, token.userID) && Objects.equals(digest, token.digest);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, userID, content);
+        return Objects.hash(id, userID, digest);
     }
 
     @Override
@@ -67,7 +84,7 @@ public class Token {
         return "Token{" +
                 "id=" + id +
                 ", userID=" + userID +
-                ", content='" + content + '\'' +
+                ", expiresAt=" + expiresAt +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package org.bugReportSystem.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// either one refresh token (digest) or every token of a user issued before revoked_before
+@Entity
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "token_revocations_expires_at_idx", columnList = "expires_at")
+})
+public class TokenRevocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false)
+    private Long id;
+
+    @Column(name = "digest", length = 64, updatable = false)
+    private String digest;
+
+    @Column(name = "user_id", updatable = false)
+    private Integer userId;
+
+    @Column(name = "revoked_before", updatable = false)
+    private Instant revokedBefore;
+
+    // once every token it covers has expired the row can go
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    public TokenRevocation() {
+    }
+
+    private TokenRevocation(String digest, Integer userId, Instant revokedBefore, Instant expiresAt) {
+        this.digest = digest;
+        this.userId = userId;
+        this.revokedBefore = revokedBefore;
+        this.expiresAt = expiresAt;
+    }
+
+    public static TokenRevocation ofToken(String digest, Instant expiresAt) {
+        return new TokenRevocation(digest, null, null, expiresAt);
+    }
+
+    public static TokenRevocation ofUser(Integer userId, Instant revokedBefore, Instant expiresAt) {
+        return new TokenRevocation(null, userId, revokedBefore, expiresAt);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public Instant getRevokedBefore() {
+        return revokedBefore;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
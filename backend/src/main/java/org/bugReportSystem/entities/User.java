@@ -1,5 +1,6 @@
 package org.bugReportSystem.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 import java.util.HashSet;
@@ -27,6 +28,8 @@ public class User {
     @Column(name = "email", nullable = false)
     private String email;
 
+    // issues are served with their assignee, the hash must never be part of a response
+    @JsonIgnore
     @Column(name = "password", nullable = false)
     private String password;
 
@@ -0,0 +1,9 @@
+package org.bugReportSystem.enums;
+
+public enum IssueChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    // moved to the archive table, gone from the board like a deletion
+    ARCHIVED
+}
@@ -1,8 +1,20 @@
 package org.bugReportSystem.enums;
 
+import org.bugReportSystem.exception.NotValidResourceException;
+
 public enum IssueColumn {
     BACKLOG,
     TODO,
     IN_PROGRESS,
-    DONE
+    DONE;
+
+    // case-insensitive, an unknown name is a client error rather than a 500
+    public static IssueColumn fromName(String name) {
+        for (IssueColumn column : values()) {
+            if (column.name().equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+        throw new NotValidResourceException("Invalid column [%s]".formatted(name));
+    }
 }
@@ -1,5 +1,7 @@
 package org.bugReportSystem.enums;
 
+import org.bugReportSystem.exception.NotValidResourceException;
+
 public enum Priority {
     LOWEST,
     LOW,
@@ -10,4 +12,14 @@ public enum Priority {
     public static Priority stringToPriority(String name) {
         return Priority.valueOf(name);
     }
+
+    // case-insensitive, an unknown name is a client error rather than a 500
+    public static Priority fromName(String name) {
+        for (Priority priority : values()) {
+            if (priority.name().equalsIgnoreCase(name)) {
+                return priority;
+            }
+        }
+        throw new NotValidResourceException("Invalid priority [%s]".formatted(name));
+    }
 }
@@ -0,0 +1,31 @@
+package org.bugReportSystem.events;
+
+import org.bugReportSystem.dtos.IssueDetailsDTO;
+import org.bugReportSystem.enums.IssueChangeType;
+
+// previous is null for CREATED, current is null for DELETED and ARCHIVED
+public record IssueChangedEvent(IssueChangeType type, IssueDetailsDTO previous, IssueDetailsDTO current) {
+    public static IssueChangedEvent created(IssueDetailsDTO current) {
+        return new IssueChangedEvent(IssueChangeType.CREATED, null, current);
+    }
+
+    public static IssueChangedEvent updated(IssueDetailsDTO previous, IssueDetailsDTO current) {
+        return new IssueChangedEvent(IssueChangeType.UPDATED, previous, current);
+    }
+
+    public static IssueChangedEvent deleted(IssueDetailsDTO previous) {
+        return new IssueChangedEvent(IssueChangeType.DELETED, previous, null);
+    }
+
+    public static IssueChangedEvent archived(IssueDetailsDTO previous) {
+        return new IssueChangedEvent(IssueChangeType.ARCHIVED, previous, null);
+    }
+
+    public Integer issueId() {
+        return current != null ? current.id() : previous.id();
+    }
+
+    public IssueDetailsDTO latest() {
+        return current != null ? current : previous;
+    }
+}
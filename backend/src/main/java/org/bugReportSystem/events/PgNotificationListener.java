@@ -0,0 +1,146 @@
+package org.bugReportSystem.events;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// One connection per node LISTENing on every subscribed channel. After each (re)connect the subscribers
+// resync, since notifications sent while the connection was down are lost.
+@Component
+public class PgNotificationListener {
+    private static final Logger log = LoggerFactory.getLogger(PgNotificationListener.class);
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final int pollMillis;
+    private final long reconnectMillis;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final Thread listener = new Thread(this::run, "pg-notification-listener");
+    private volatile boolean running = true;
+    private volatile boolean connected;
+
+    public PgNotificationListener(DataSource dataSource, JdbcTemplate jdbcTemplate,
+                                  @Value("${notifications.poll-ms:10000}") int pollMillis,
+                                  @Value("${notifications.reconnect-ms:2000}") long reconnectMillis) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollMillis = pollMillis;
+        this.reconnectMillis = reconnectMillis;
+    }
+
+    // to be called while the context starts, channels are LISTENed to when the connection opens
+    public void subscribe(String channel, Consumer<String> onNotification, Runnable onConnect) {
+        subscriptions.put(channel, new Subscription(onNotification, onConnect));
+    }
+
+    // delivered to every node, this one included, when the surrounding transaction commits
+    public void publish(String channel, String payload) {
+        jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, channel, payload);
+    }
+
+    // false while reconnecting, subscribers should not trust their local state then
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                listen(connection);
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Notification connection lost, reconnecting: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                log.warn("Notification resync failed, reconnecting", e);
+            } finally {
+                connected = false;
+            }
+            if (!sleep()) {
+                return;
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        PGConnection pgConnection;
+        try {
+            pgConnection = connection.unwrap(PGConnection.class);
+        } catch (SQLException e) {
+            // not Postgres, subscribers keep answering from the database
+            log.warn("Database does not support LISTEN/NOTIFY, cluster notifications are disabled");
+            running = false;
+            return;
+        }
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            for (String channel : subscriptions.keySet()) {
+                statement.execute("LISTEN " + channel);
+            }
+            subscriptions.values().forEach(subscription -> subscription.onConnect.run());
+            connected = true;
+            while (running) {
+                PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                if (notifications == null || notifications.length == 0) {
+                    // getNotifications does not notice a dead connection by itself
+                    statement.execute("SELECT 1");
+                    continue;
+                }
+                for (PGNotification notification : notifications) {
+                    dispatch(notification);
+                }
+            }
+        }
+    }
+
+    private void dispatch(PGNotification notification) {
+        Subscription subscription = subscriptions.get(notification.getName());
+        if (subscription == null) {
+            return;
+        }
+        try {
+            subscription.onNotification.accept(notification.getParameter());
+        } catch (RuntimeException e) {
+            log.warn("Failed to handle notification on {}: {}", notification.getName(), notification.getParameter(), e);
+        }
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(reconnectMillis);
+            return running;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        listener.interrupt();
+    }
+
+    private record Subscription(Consumer<String> onNotification, Runnable onConnect) {
+    }
+}
@@ -0,0 +1,45 @@
+package org.bugReportSystem.repositories;
+
+import org.bugReportSystem.dtos.IssueSearchResult;
+import org.bugReportSystem.entities.ArchivedIssue;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ArchivedIssueRepository extends JpaRepository<ArchivedIssue, Integer> {
+    @Query("select a from ArchivedIssue a where a.archivedAt < :before order by a.archivedAt desc, a.id desc")
+    List<ArchivedIssue> findRecent(@Param("before") Instant before, Limit limit);
+
+    @Query(value = """
+            select i.id as "id", i.title as "title", i.status_column as "issueColumn", i.rank as "rank",
+                   ts_headline('english', i.title, q, 'StartSel=<mark>, StopSel=</mark>, HighlightAll=true') as "titleHighlight",
+                   ts_headline('english', i.description, q, 'StartSel=<mark>, StopSel=</mark>, MaxFragments=2') as "descriptionHighlight"
+            from (select s.id, s.title, s.description, s.status_column, ts_rank(s.search_vector, q) as rank
+                  from issues_archive s, to_tsquery('english', :query) q
+                  where s.search_vector @@ q
+                  order by rank desc, s.id
+                  limit :limit) i,
+                 to_tsquery('english', :query) q
+            order by i.rank desc, i.id
+            """, nativeQuery = true)
+    List<IssueSearchResult> search(@Param("query") String query, @Param("limit") int limit);
+
+    // a crash report may have reopened the fingerprint meanwhile, the restored copy then gives it up
+    @Modifying
+    @Query(value = """
+            insert into issues (id, title, description, status_column, priority, board_rank, reporter_email,
+                                assignee_id, fingerprint, occurrences, version, updated_at)
+            select a.id, a.title, a.description, a.status_column, a.priority, a.board_rank, a.reporter_email,
+                   case when exists (select 1 from users u where u.id = a.assignee_id) then a.assignee_id end,
+                   case when exists (select 1 from issues i where i.fingerprint = a.fingerprint) then null else a.fingerprint end,
+                   a.occurrences, a.version + 1, now()
+            from issues_archive a
+            where a.id = :id
+            """, nativeQuery = true)
+    int restore(@Param("id") Integer id);
+}
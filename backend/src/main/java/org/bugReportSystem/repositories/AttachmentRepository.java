@@ -0,0 +1,22 @@
+package org.bugReportSystem.repositories;
+
+import org.bugReportSystem.entities.Attachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface AttachmentRepository extends JpaRepository<Attachment, Integer> {
+    List<Attachment> findAllByIssueIdOrderById(Integer issueId);
+
+    Optional<Attachment> findByIdAndIssueId(Integer id, Integer issueId);
+
+    boolean existsBySha256(String sha256);
+
+    // held by an upload from promoting its content until its row is committed, and by a delete from checking
+    // the references until the blob is gone
+    @Query(value = "select cast(pg_advisory_xact_lock(hashtext('attachments'), hashtext(:sha256)) as text)", nativeQuery = true)
+    String lockContent(@Param("sha256") String sha256);
+}
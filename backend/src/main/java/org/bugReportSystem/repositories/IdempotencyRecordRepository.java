@@ -0,0 +1,51 @@
+package org.bugReportSystem.repositories;
+
+import org.bugReportSystem.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    // commits on its own so other nodes see the claim while the request is still running; a pending claim of the
+    // same request whose lease ran out, e.g. because its node died, is taken over (claims from before leases have none)
+    @Transactional
+    @Modifying
+    @Query(value = """
+            insert into idempotency_keys (idempotency_key, request_hash, created_at, owner, lease_until)
+            values (:key, :requestHash, :createdAt, :owner, :leaseUntil)
+            on conflict (idempotency_key) do update
+            set owner = excluded.owner, lease_until = excluded.lease_until, created_at = excluded.created_at
+            where idempotency_keys.status is null
+              and idempotency_keys.request_hash = excluded.request_hash
+              and (idempotency_keys.lease_until is null or idempotency_keys.lease_until < excluded.created_at)
+            """, nativeQuery = true)
+    int claim(@Param("key") String key, @Param("requestHash") String requestHash, @Param("createdAt") Instant createdAt,
+              @Param("owner") String owner, @Param("leaseUntil") Instant leaseUntil);
+
+    // a claim taken over by another node is left to it
+    @Transactional
+    @Modifying
+    @Query("""
+            update IdempotencyRecord r set r.status = :status, r.contentKind = :contentKind, r.body = :body
+            where r.key = :key and r.owner = :owner
+            """)
+    int complete(@Param("key") String key, @Param("owner") String owner, @Param("status") int status,
+                 @Param("contentKind") String contentKind, @Param("body") String body);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.owner = :owner and r.status is null")
+    int release(@Param("key") String key, @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            delete from idempotency_keys where idempotency_key in (
+                select idempotency_key from idempotency_keys where created_at < :cutoff limit :batchSize)
+            """, nativeQuery = true)
+    int deleteExpired(@Param("cutoff") Instant cutoff, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,16 @@
+package org.bugReportSystem.repositories;
+
+import org.bugReportSystem.entities.IssueEventCompaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface IssueEventCompactionRepository extends JpaRepository<IssueEventCompaction, Integer> {
+    @Query("select coalesce(max(c.horizon), 0) from IssueEventCompaction c")
+    long findHorizon();
+
+    @Modifying
+    @Query("delete from IssueEventCompaction c where c.horizon < :horizon")
+    int deleteOlderThan(@Param("horizon") long horizon);
+}
@@ -0,0 +1,61 @@
+package org.bugReportSystem.repositories;
+
+import org.bugReportSystem.entities.IssueEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface IssueEventRepository extends JpaRepository<IssueEvent, Long> {
+    List<IssueEvent> findByPositionGreaterThanOrderByPosition(long position, Limit limit);
+
+    // only one reader assigns positions at a time, writers never take this lock
+    @Query(value = "select pg_try_advisory_xact_lock(hashtext('issue_events_position'))", nativeQuery = true)
+    boolean tryLockPositions();
+
+    // Events of transactions older than the oldest running one are all committed, so they are numbered in
+    // (transaction, sequence) order; a transaction still running gets its positions after them.
+    // nextval in the select list is evaluated after order by and limit.
+    @Modifying
+    @Query(value = """
+            update issue_events e set log_position = p.log_position
+            from (select sequence, nextval('issue_events_position_seq') as log_position
+                  from issue_events
+                  where log_position is null and tx_id < pg_snapshot_xmin(pg_current_snapshot())
+                  order by tx_id, sequence
+                  limit :batchSize) p
+            where e.sequence = p.sequence
+            """, nativeQuery = true)
+    int assignPositions(@Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query(value = """
+            delete from issue_events where sequence in (
+                select e.sequence from issue_events e
+                where e.created_at < :cutoff
+                  and e.log_position is not null
+                  and exists (select 1 from issue_events n
+                              where n.issue_id = e.issue_id and n.log_position > e.log_position)
+                limit :batchSize)
+            """, nativeQuery = true)
+    int deleteSuperseded(@Param("cutoff") Instant cutoff, @Param("batchSize") int batchSize);
+
+    @Query(value = """
+            select coalesce(max(log_position), 0) from issue_events
+            where type in ('DELETED', 'ARCHIVED') and created_at < :cutoff
+            """, nativeQuery = true)
+    long findLatestTombstoneBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query(value = """
+            delete from issue_events where sequence in (
+                select sequence from issue_events
+                where type in ('DELETED', 'ARCHIVED') and log_position <= :horizon
+                limit :batchSize)
+            """, nativeQuery = true)
+    int deleteTombstones(@Param("horizon") long horizon, @Param("batchSize") int batchSize);
+}
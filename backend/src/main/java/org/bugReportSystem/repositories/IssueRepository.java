@@ -1,7 +1,154 @@
 package org.bugReportSystem.repositories;
 
+import org.bugReportSystem.dtos.IssueBoardRow;
+import org.bugReportSystem.dtos.IssueMoveResult;
+import org.bugReportSystem.dtos.IssueSearchResult;
 import org.bugReportSystem.entities.Issue;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface IssueRepository extends JpaRepository<Issue, Integer> {
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface IssueRepository extends JpaRepository<Issue, Integer>, JpaSpecificationExecutor<Issue> {
+    @Query("""
+            select new org.bugReportSystem.dtos.IssueBoardRow(
+                i.id, i.title, i.column, i.priority, i.rank, a.id, concat(a.firstname, ' ', a.lastname), i.version)
+            from Issue i left join i.assignee a
+            where i.column = :column
+            order by i.rank nulls last, i.id
+            """)
+    List<IssueBoardRow> findBoardColumn(@Param("column") IssueColumn column);
+
+    // a rebalance is not an edit, updated_at and version stay so archiving and If-Match are not affected
+    @Modifying
+    @Query("update Issue i set i.rank = :rank where i.id = :id and i.version = :version")
+    int updateRank(@Param("id") Integer id, @Param("version") long version, @Param("rank") String rank);
+
+    @Modifying
+    @Query("update Issue i set i.column = :column, i.updatedAt = :now, i.version = i.version + 1 where i.id in :ids")
+    int moveAll(@Param("ids") Collection<Integer> ids, @Param("column") IssueColumn column, @Param("now") Instant now);
+
+    // one round trip per drag-and-drop, the old column and rank come back from the pre-update row
+    @Transactional
+    @Query(value = """
+            update issues i
+            set status_column = :column,
+                board_rank = coalesce(cast(:rank as varchar), i.board_rank),
+                updated_at = now(),
+                version = i.version + 1
+            from issues old
+            where i.id = :id
+              and old.id = i.id
+              and (cast(:version as bigint) is null or i.version = cast(:version as bigint))
+            returning i.id as "id", i.title as "title", i.description as "description",
+                      i.status_column as "issueColumn", i.priority as "priority", i.board_rank as "rank",
+                      i.reporter_email as "reporterEmail", i.assignee_id as "assigneeId",
+                      i.occurrences as "occurrences", i.version as "version",
+                      old.status_column as "previousColumn", old.board_rank as "previousRank"
+            """, nativeQuery = true)
+    List<IssueMoveResult> move(@Param("id") Integer id,
+                               @Param("column") String column,
+                               @Param("rank") String rank,
+                               @Param("version") Long version);
+
+    List<Issue> findAllByFingerprintIn(Collection<String> fingerprints);
+
+    // rows locked by a concurrent archiver or a user edit are left for the next batch
+    @Query(value = """
+            select id from issues
+            where status_column = 'DONE' and updated_at < :cutoff
+            order by id
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<Integer> lockArchivable(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Query("select max(i.rank) from Issue i where i.column = :column")
+    String findLastRank(@Param("column") IssueColumn column);
+
+    @Query("select i from Issue i where i.column = :column order by i.rank nulls last, i.id")
+    List<Issue> findAllByColumnOrderByRank(@Param("column") IssueColumn column);
+
+    @Query("select i from Issue i left join fetch i.assignee where i.column = :column order by i.rank nulls last, i.id")
+    List<Issue> findAllWithAssigneeByColumn(@Param("column") IssueColumn column);
+
+    @Query("""
+            select count(i) from Issue i
+            where i.column = :column
+              and (i.rank is null
+                   or length(i.rank) > :maxLength
+                   or exists (select o.id from Issue o where o.column = i.column and o.rank = i.rank and o.id <> i.id))
+            """)
+    long countUnbalanced(@Param("column") IssueColumn column, @Param("maxLength") int maxLength);
+
+    // only the filters that are set become predicates, so the planner can use the matching index;
+    // the assignee is compared through its foreign key without a join
+    default List<Issue> findPage(Integer afterId, IssueColumn column, Priority priority, Integer assigneeId,
+                                 String reporterEmail, int limit) {
+        Specification<Issue> page = (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+        if (column != null) {
+            page = page.and((root, query, cb) -> cb.equal(root.get("column"), column));
+        }
+        if (priority != null) {
+            page = page.and((root, query, cb) -> cb.equal(root.get("priority"), priority));
+        }
+        if (assigneeId != null) {
+            page = page.and((root, query, cb) -> cb.equal(root.get("assignee").get("id"), assigneeId));
+        }
+        if (reporterEmail != null) {
+            page = page.and((root, query, cb) -> cb.equal(root.get("reporterEmail"), reporterEmail));
+        }
+        return findBy(page, query -> query.sortBy(Sort.by("id")).limit(limit).all());
+    }
+
+    @Query("select i.column, count(i) from Issue i group by i.column")
+    List<Object[]> countByColumn();
+
+    @Query("select i.priority, count(i) from Issue i group by i.priority")
+    List<Object[]> countByPriority();
+
+    @Query("select a.id, count(i) from Issue i left join i.assignee a group by a.id")
+    List<Object[]> countByAssignee();
+
+    @Query("select i.id, i.title, i.description from Issue i where i.id > :afterId order by i.id")
+    List<Object[]> findTextsAfter(@Param("afterId") Integer afterId, Limit limit);
+
+    @Query("select i.id, i.title, i.description from Issue i where i.id = :id")
+    List<Object[]> findText(@Param("id") Integer id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select i from Issue i where i.id > :afterId order by i.id")
+    Stream<Issue> streamAfter(@Param("afterId") Integer afterId);
+
+    @Query(value = """
+            select i.id as "id", i.title as "title", i.status_column as "issueColumn", i.rank as "rank",
+                   ts_headline('english', i.title, q, 'StartSel=<mark>, StopSel=</mark>, HighlightAll=true') as "titleHighlight",
+                   ts_headline('english', i.description, q, 'StartSel=<mark>, StopSel=</mark>, MaxFragments=2') as "descriptionHighlight"
+            from (select s.id, s.title, s.description, s.status_column, ts_rank(s.search_vector, q) as rank
+                  from issues s, to_tsquery('english', :query) q
+                  where s.search_vector @@ q
+                  order by rank desc, s.id
+                  limit :limit) i,
+                 to_tsquery('english', :query) q
+            order by i.rank desc, i.id
+            """, nativeQuery = true)
+    List<IssueSearchResult> search(@Param("query") String query, @Param("limit") int limit);
 }
@@ -2,14 +2,43 @@ package org.bugReportSystem.repositories;
 
 import org.bugReportSystem.entities.Token;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface TokenRepository extends JpaRepository<Token, Integer> {
-    void deleteByContent(String tokenContent);
+    // two logins of the same user within one second produce the same token
+    @Modifying
+    @Query(value = """
+            insert into token (user_id, digest, expires_at)
+            values (:userId, :digest, :expiresAt)
+            on conflict (digest) do nothing
+            """, nativeQuery = true)
+    int insert(@Param("userId") Integer userId, @Param("digest") String digest, @Param("expiresAt") Instant expiresAt);
+
+    // tokens of a user beyond the newest ones, older sessions are logged out
+    @Query(value = """
+            select * from token where user_id = :userId order by id desc offset :keep
+            """, nativeQuery = true)
+    List<Token> findOldest(@Param("userId") Integer userId, @Param("keep") int keep);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            delete from token where id in (
+                select id from token where expires_at < :now limit :batchSize)
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now, @Param("batchSize") int batchSize);
+
+    void deleteByDigest(String digest);
 
     void deleteAllByUserID(Integer UserID);
 
-    Optional<Token> findByContent(String token);
+    Optional<Token> findByDigest(String digest);
 
 }
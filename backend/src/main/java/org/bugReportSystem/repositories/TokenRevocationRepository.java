@@ -0,0 +1,23 @@
+package org.bugReportSystem.repositories;
+
+import org.bugReportSystem.entities.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    List<TokenRevocation> findAllByExpiresAtAfter(Instant now);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            delete from token_revocations where id in (
+                select id from token_revocations where expires_at < :now limit :batchSize)
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now, @Param("batchSize") int batchSize);
+}
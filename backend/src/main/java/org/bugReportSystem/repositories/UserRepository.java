@@ -1,8 +1,14 @@
 package org.bugReportSystem.repositories;
 
+import org.bugReportSystem.dtos.UserSearchResult;
 import org.bugReportSystem.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
@@ -10,4 +16,15 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     Optional<User> findByEmail(String email);
 
+    @Query("select new org.bugReportSystem.dtos.UserSearchResult(u.id, u.firstname, u.lastname, u.email) from User u "
+            + "where u.id > :afterId order by u.id")
+    List<UserSearchResult> findSearchEntriesAfter(@Param("afterId") Integer afterId, Limit limit);
+
+    @Query("select new org.bugReportSystem.dtos.UserSearchResult(u.id, u.firstname, u.lastname, u.email) from User u "
+            + "where u.id in :ids")
+    List<UserSearchResult> findSearchEntries(@Param("ids") Collection<Integer> ids);
+
+    @Query("select new org.bugReportSystem.dtos.UserSearchResult(u.id, u.firstname, u.lastname, u.email) from User u "
+            + "where u.email in :emails")
+    List<UserSearchResult> findSearchEntriesByEmail(@Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,4 @@
+package org.bugReportSystem.requests;
+
+public record CrashReportRequest(String title, String message, String stackTrace, String reporterEmail) {
+}
@@ -0,0 +1,8 @@
+package org.bugReportSystem.requests;
+
+import org.bugReportSystem.dtos.IssueDTO;
+
+import java.util.List;
+
+public record IssueBulkRequest(List<IssueDTO> create, List<IssueUpdateRequest> update, List<IssueMoveRequest> move) {
+}
@@ -0,0 +1,4 @@
+package org.bugReportSystem.requests;
+
+public record IssueMoveRequest(Integer id, String column) {
+}
@@ -0,0 +1,5 @@
+package org.bugReportSystem.requests;
+
+// after/before are the ranks of the neighbouring cards at the drop position, null at either end of the column
+public record IssuePositionRequest(String column, String after, String before) {
+}
@@ -0,0 +1,8 @@
+package org.bugReportSystem.security;
+
+import java.time.Instant;
+
+// verified access token subject, stored as a request attribute by JwtAuthenticationFilter
+public record AuthenticatedUser(int userId, Instant expiresAt) {
+    public static final String ATTRIBUTE = AuthenticatedUser.class.getName();
+}
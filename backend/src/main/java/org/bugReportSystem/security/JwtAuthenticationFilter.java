@@ -0,0 +1,33 @@
+package org.bugReportSystem.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// authenticates every api request up front; endpoints decide themselves whether a principal is required
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final String API_PREFIX = "/api/";
+    private final JwtAuthenticator jwtAuthenticator;
+
+    public JwtAuthenticationFilter(JwtAuthenticator jwtAuthenticator) {
+        this.jwtAuthenticator = jwtAuthenticator;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        jwtAuthenticator.authenticate(request);
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,97 @@
+package org.bugReportSystem.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.bugReportSystem.services.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class JwtAuthenticator {
+    public static final String FAILURE_ATTRIBUTE = JwtAuthenticator.class.getName() + ".failure";
+    private static final String BEARER = "Bearer ";
+    private final TokenService tokenService;
+    private final int maxCachedTokens;
+    // access tokens share one lifetime, so insertion order is expiry order and the eldest entry is evicted first
+    private final LinkedHashMap<String, AuthenticatedUser> verified = new LinkedHashMap<>();
+
+    public JwtAuthenticator(TokenService tokenService,
+                            @Value("${auth.token-cache.max-entries:10000}") int maxCachedTokens) {
+        this.tokenService = tokenService;
+        this.maxCachedTokens = maxCachedTokens;
+    }
+
+    // verifies the bearer token at most once per request, the result is kept in request attributes
+    public AuthenticatedUser authenticate(HttpServletRequest request) {
+        if (request.getAttribute(AuthenticatedUser.ATTRIBUTE) instanceof AuthenticatedUser user) {
+            return user;
+        }
+        if (request.getAttribute(FAILURE_ATTRIBUTE) != null) {
+            return null;
+        }
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER)) {
+            request.setAttribute(FAILURE_ATTRIBUTE, Failure.MISSING);
+            return null;
+        }
+        String token = header.substring(BEARER.length());
+        AuthenticatedUser user = cached(token);
+        if (user == null) {
+            try {
+                user = tokenService.parseAccessToken(token);
+            } catch (ExpiredJwtException e) {
+                request.setAttribute(FAILURE_ATTRIBUTE, Failure.EXPIRED);
+                return null;
+            } catch (JwtException | IllegalArgumentException e) {
+                request.setAttribute(FAILURE_ATTRIBUTE, Failure.INVALID);
+                return null;
+            }
+            cache(token, user);
+        }
+        request.setAttribute(AuthenticatedUser.ATTRIBUTE, user);
+        return user;
+    }
+
+    public Failure failure(HttpServletRequest request) {
+        return authenticate(request) == null ? (Failure) request.getAttribute(FAILURE_ATTRIBUTE) : null;
+    }
+
+    public synchronized int getCachedTokenCount() {
+        return verified.size();
+    }
+
+    private synchronized AuthenticatedUser cached(String token) {
+        AuthenticatedUser user = verified.get(token);
+        if (user != null && !user.expiresAt().isAfter(Instant.now())) {
+            verified.remove(token);
+            return null;
+        }
+        return user;
+    }
+
+    private synchronized void cache(String token, AuthenticatedUser user) {
+        Instant now = Instant.now();
+        Iterator<Map.Entry<String, AuthenticatedUser>> eldest = verified.entrySet().iterator();
+        while (eldest.hasNext()) {
+            Map.Entry<String, AuthenticatedUser> entry = eldest.next();
+            if (verified.size() < maxCachedTokens && entry.getValue().expiresAt().isAfter(now)) {
+                break;
+            }
+            eldest.remove();
+        }
+        verified.put(token, user);
+    }
+
+    public enum Failure {
+        MISSING,
+        EXPIRED,
+        INVALID
+    }
+}
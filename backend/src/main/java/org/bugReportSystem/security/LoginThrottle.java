@@ -0,0 +1,109 @@
+package org.bugReportSystem.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sliding window login limiter per e-mail and per client address. Each key is one AtomicLong packing
+// [window number:32][previous window count:16][current window count:16], updated with a CAS loop.
+@Component
+public class LoginThrottle {
+    private static final long WINDOW_MASK = 0xFFFFFFFFL;
+    private static final int COUNT_MASK = 0xFFFF;
+    private final long windowMillis;
+    private final int maxPerEmail;
+    private final int maxPerAddress;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> emails = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> addresses = new ConcurrentHashMap<>();
+
+    public LoginThrottle(@Value("${auth.login-throttle.window-seconds:60}") long windowSeconds,
+                         @Value("${auth.login-throttle.max-per-email:5}") int maxPerEmail,
+                         @Value("${auth.login-throttle.max-per-address:50}") int maxPerAddress,
+                         @Value("${auth.login-throttle.max-keys:100000}") int maxKeys) {
+        this.windowMillis = windowSeconds * 1000;
+        this.maxPerEmail = maxPerEmail;
+        this.maxPerAddress = maxPerAddress;
+        this.maxKeys = maxKeys;
+    }
+
+    // counts a login attempt, returns 0 when it may proceed or the seconds to wait before the next one
+    public long acquire(String email, String address) {
+        return acquire(email, address, System.currentTimeMillis());
+    }
+
+    long acquire(String email, String address, long now) {
+        long waitMillis = tryAcquire(counter(addresses, address), maxPerAddress, now);
+        if (waitMillis == 0) {
+            waitMillis = tryAcquire(counter(emails, email.toLowerCase(Locale.ROOT)), maxPerEmail, now);
+        }
+        return (waitMillis + 999) / 1000;
+    }
+
+    // null once the map is full: a key arriving during a flood of new keys is only limited by the other map,
+    // sharing one counter would let the flood lock out everybody
+    private AtomicLong counter(ConcurrentHashMap<String, AtomicLong> counters, String key) {
+        AtomicLong counter = counters.get(key);
+        if (counter != null || counters.size() >= maxKeys) {
+            return counter;
+        }
+        return counters.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    private long tryAcquire(AtomicLong counter, int limit, long now) {
+        if (counter == null) {
+            return 0;
+        }
+        long window = (now / windowMillis) & WINDOW_MASK;
+        long elapsed = now % windowMillis;
+        while (true) {
+            long state = counter.get();
+            long stateWindow = state >>> 32;
+            int previous = 0;
+            int current = 0;
+            if (stateWindow == window) {
+                previous = (int) (state >>> 16) & COUNT_MASK;
+                current = (int) state & COUNT_MASK;
+            } else if (stateWindow == ((window - 1) & WINDOW_MASK)) {
+                previous = (int) state & COUNT_MASK;
+            }
+            // the previous window's attempts count for the part of it still inside the sliding window
+            double estimate = previous * (1 - (double) elapsed / windowMillis) + current;
+            if (estimate >= limit) {
+                return waitMillis(previous, current, limit, elapsed);
+            }
+            long next = window << 32 | (long) previous << 16 | Math.min(current + 1, COUNT_MASK);
+            if (counter.compareAndSet(state, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private long waitMillis(int previous, int current, int limit, long elapsed) {
+        if (current < limit) {
+            // wait until enough of the previous window has slid out
+            long until = (long) Math.ceil(windowMillis * (1 - (double) (limit - current) / previous));
+            return Math.max(1, until - elapsed);
+        }
+        // this window is already full, it becomes the previous one and has to slide out far enough
+        long intoNext = (long) Math.ceil(windowMillis * (1 - (double) limit / current));
+        return Math.max(1, windowMillis - elapsed + intoNext);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login-throttle.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long window = (System.currentTimeMillis() / windowMillis) & WINDOW_MASK;
+        long previousWindow = (window - 1) & WINDOW_MASK;
+        emails.values().removeIf(counter -> isExpired(counter, window, previousWindow));
+        addresses.values().removeIf(counter -> isExpired(counter, window, previousWindow));
+    }
+
+    private static boolean isExpired(AtomicLong counter, long window, long previousWindow) {
+        long stateWindow = counter.get() >>> 32;
+        return stateWindow != window && stateWindow != previousWindow;
+    }
+}
@@ -0,0 +1,205 @@
+package org.bugReportSystem.security;
+
+import org.bugReportSystem.dtos.RevocationStats;
+import org.bugReportSystem.entities.TokenRevocation;
+import org.bugReportSystem.events.PgNotificationListener;
+import org.bugReportSystem.repositories.TokenRevocationRepository;
+import org.bugReportSystem.services.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Revoked refresh tokens known to this node, so a refresh only reads the token table when in doubt.
+// Revocations older than the last resync are in a Bloom filter, newer ones arrive over NOTIFY into an exact map.
+@Component
+public class TokenRevocationList {
+    public static final String CHANNEL = "token_revocations";
+    private static final int PURGE_BATCH_SIZE = 500;
+    private final TokenRevocationRepository repository;
+    private final PgNotificationListener notifications;
+    private final Map<String, Long> recentTokens = new ConcurrentHashMap<>();
+    // user id -> epoch second before which all of the user's tokens are revoked
+    private final Map<Integer, Long> revokedUsers = new ConcurrentHashMap<>();
+    private final LongAdder localChecks = new LongAdder();
+    private final LongAdder databaseChecks = new LongAdder();
+    private final double falsePositiveRate;
+    private volatile BloomFilter revokedTokens = BloomFilter.empty();
+    private volatile boolean synced;
+
+    public TokenRevocationList(TokenRevocationRepository repository, PgNotificationListener notifications,
+                               @Value("${auth.revocations.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.notifications = notifications;
+        this.falsePositiveRate = falsePositiveRate;
+        notifications.subscribe(CHANNEL, this::apply, this::resync);
+    }
+
+    public enum Status {
+        VALID,
+        REVOKED,
+        // only the token table can tell
+        UNKNOWN
+    }
+
+    public Status check(String digest, int userId, Instant issuedAt) {
+        Status status = checkLocally(digest, userId, issuedAt);
+        (status == Status.UNKNOWN ? databaseChecks : localChecks).increment();
+        return status;
+    }
+
+    private Status checkLocally(String digest, int userId, Instant issuedAt) {
+        if (!synced || !notifications.isConnected() || issuedAt == null) {
+            return Status.UNKNOWN;
+        }
+        Long revokedBefore = revokedUsers.get(userId);
+        if (revokedBefore != null) {
+            long issuedSecond = issuedAt.getEpochSecond();
+            if (issuedSecond < revokedBefore) {
+                return Status.REVOKED;
+            }
+            if (issuedSecond == revokedBefore) {
+                // iat has second precision, issued in the same second as the revocation
+                return Status.UNKNOWN;
+            }
+        }
+        if (recentTokens.containsKey(digest)) {
+            return Status.REVOKED;
+        }
+        return revokedTokens.mightContain(digest) ? Status.UNKNOWN : Status.VALID;
+    }
+
+    // both have to be called in the transaction that deletes the tokens
+    public void revokeToken(String digest, Instant expiresAt) {
+        repository.save(TokenRevocation.ofToken(digest, expiresAt));
+        publish("t " + digest + " " + expiresAt.getEpochSecond());
+    }
+
+    public void revokeUser(Integer userId, Instant revokedBefore, Instant expiresAt) {
+        repository.save(TokenRevocation.ofUser(userId, revokedBefore, expiresAt));
+        publish("u " + userId + " " + revokedBefore.getEpochSecond() + " " + expiresAt.getEpochSecond());
+    }
+
+    private void publish(String payload) {
+        notifications.publish(CHANNEL, payload);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // applied locally right away instead of waiting for our own notification
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(payload);
+                }
+            });
+        }
+    }
+
+    private void apply(String payload) {
+        String[] parts = payload.split(" ");
+        if (parts[0].equals("t")) {
+            recentTokens.put(parts[1], Long.parseLong(parts[2]));
+        } else if (parts[0].equals("u")) {
+            revokedUsers.merge(Integer.valueOf(parts[1]), Long.parseLong(parts[2]), Math::max);
+        }
+    }
+
+    // runs on every (re)connect of the listener, after LISTEN so nothing committed meanwhile is missed
+    private void resync() {
+        synced = false;
+        List<TokenRevocation> revocations = repository.findAllByExpiresAtAfter(Instant.now());
+        List<TokenRevocation> tokens = revocations.stream().filter(r -> r.getDigest() != null).toList();
+        BloomFilter bloomFilter = BloomFilter.create(tokens.size(), falsePositiveRate);
+        tokens.forEach(revocation -> bloomFilter.add(revocation.getDigest()));
+        revokedTokens = bloomFilter;
+        // notifications applied while loading may not be in the filter yet
+        recentTokens.keySet().removeIf(bloomFilter::mightContain);
+        revocations.stream().filter(r -> r.getUserId() != null).forEach(revocation -> revokedUsers.merge(
+                revocation.getUserId(), revocation.getRevokedBefore().getEpochSecond(), Math::max));
+        synced = true;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocations.resync-interval-ms:3600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        while (repository.deleteExpired(now, PURGE_BATCH_SIZE) == PURGE_BATCH_SIZE) {
+            // keep deleting in small transactions
+        }
+        long nowSecond = now.getEpochSecond();
+        recentTokens.values().removeIf(expiresAt -> expiresAt < nowSecond);
+        // every token issued before the revocation has expired by now
+        long refreshLifetime = TokenService.EXPIRATION_TIME_REFRESH / 1000;
+        revokedUsers.values().removeIf(revokedBefore -> revokedBefore + refreshLifetime < nowSecond);
+        if (notifications.isConnected()) {
+            // rebuilds the filter without the expired digests
+            resync();
+        }
+    }
+
+    public RevocationStats getStats() {
+        return new RevocationStats(synced && notifications.isConnected(), revokedTokens.size(), recentTokens.size(),
+                revokedUsers.size(), localChecks.sum(), databaseChecks.sum());
+    }
+
+    private static final class BloomFilter {
+        private final long[] bits;
+        private final int hashes;
+        private final int size;
+        private int count;
+
+        private BloomFilter(int bitCount, int hashes, int size) {
+            this.bits = new long[Math.max(1, (bitCount + 63) / 64)];
+            this.hashes = hashes;
+            this.size = size;
+        }
+
+        static BloomFilter empty() {
+            return new BloomFilter(64, 1, 0);
+        }
+
+        static BloomFilter create(int expected, double falsePositiveRate) {
+            int n = Math.max(expected, 1024);
+            int bitCount = (int) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int hashes = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+            return new BloomFilter(bitCount, hashes, expected);
+        }
+
+        // the digests are SHA-256 hex, so two of their 64 bit words are independent hashes already
+        void add(String digest) {
+            long h1 = HexFormat.fromHexDigitsToLong(digest, 0, 16);
+            long h2 = HexFormat.fromHexDigitsToLong(digest, 16, 32);
+            long bitCount = bits.length * 64L;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+            count++;
+        }
+
+        boolean mightContain(String digest) {
+            if (count == 0) {
+                return false;
+            }
+            long h1 = HexFormat.fromHexDigitsToLong(digest, 0, 16);
+            long h2 = HexFormat.fromHexDigitsToLong(digest, 16, 32);
+            long bitCount = bits.length * 64L;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
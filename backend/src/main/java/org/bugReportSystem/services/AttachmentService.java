@@ -0,0 +1,199 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.dtos.AttachmentDTO;
+import org.bugReportSystem.entities.Attachment;
+import org.bugReportSystem.enums.IssueChangeType;
+import org.bugReportSystem.events.IssueChangedEvent;
+import org.bugReportSystem.exception.NotValidResourceException;
+import org.bugReportSystem.exception.PayloadTooLargeException;
+import org.bugReportSystem.exception.ResourceNotFoundException;
+import org.bugReportSystem.repositories.AttachmentRepository;
+import org.bugReportSystem.repositories.IssueRepository;
+import org.bugReportSystem.storage.AttachmentStorage;
+import org.bugReportSystem.storage.StoredObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class AttachmentService {
+    public static final String KEY_PREFIX = "attachments/sha256/";
+    public static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private final AttachmentRepository attachmentRepository;
+    private final IssueRepository issueRepository;
+    private final AttachmentStorage storage;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxSize;
+
+    public AttachmentService(AttachmentRepository attachmentRepository, IssueRepository issueRepository,
+                             AttachmentStorage storage, PlatformTransactionManager transactionManager,
+                             @Value("${attachments.max-size-bytes:104857600}") long maxSize) {
+        this.attachmentRepository = attachmentRepository;
+        this.issueRepository = issueRepository;
+        this.storage = storage;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxSize = maxSize;
+    }
+
+    // the body is streamed into storage first, equal content ends up under one key
+    public AttachmentDTO upload(Integer issueId, String fileName, String contentType, InputStream content) {
+        if (!issueRepository.existsById(issueId)) {
+            throw new ResourceNotFoundException("Issue with id [%s] not found".formatted(issueId));
+        }
+        String type = contentType == null ? DEFAULT_CONTENT_TYPE : contentType;
+        try {
+            MediaType.parseMediaType(type);
+        } catch (InvalidMediaTypeException e) {
+            throw new NotValidResourceException("Invalid content type [%s]".formatted(type));
+        }
+        try {
+            StoredObject stored = storage.upload(new SizeLimitedInputStream(content, maxSize), type);
+            try {
+                return transactionTemplate.execute(status -> {
+                    // a delete of the last reference either finished before or sees this row
+                    attachmentRepository.lockContent(stored.sha256());
+                    promote(stored);
+                    Attachment attachment = new Attachment(issueId, fileName, type, stored.size(), stored.sha256(), Instant.now());
+                    return AttachmentDTO.from(attachmentRepository.save(attachment));
+                });
+            } catch (RuntimeException e) {
+                discard(stored, e);
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Attachment upload failed", e);
+        }
+    }
+
+    private void promote(StoredObject stored) {
+        try {
+            storage.promote(stored.temporaryKey(), KEY_PREFIX + stored.sha256());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Attachment upload failed", e);
+        }
+    }
+
+    // the row was rolled back, whatever was written for it goes unless another row refers to the content
+    private void discard(StoredObject stored, RuntimeException failure) {
+        try {
+            storage.delete(stored.temporaryKey());
+            transactionTemplate.executeWithoutResult(status -> {
+                attachmentRepository.lockContent(stored.sha256());
+                if (!attachmentRepository.existsBySha256(stored.sha256())) {
+                    try {
+                        storage.delete(KEY_PREFIX + stored.sha256());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Attachment delete failed", e);
+                    }
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    public List<AttachmentDTO> getAttachments(Integer issueId) {
+        return attachmentRepository.findAllByIssueIdOrderById(issueId).stream().map(AttachmentDTO::from).toList();
+    }
+
+    public AttachmentDTO getAttachment(Integer issueId, Integer attachmentId) {
+        return attachmentRepository.findByIdAndIssueId(attachmentId, issueId).map(AttachmentDTO::from)
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment with id [%s] not found".formatted(attachmentId)));
+    }
+
+    public void download(AttachmentDTO attachment, OutputStream outputStream) {
+        try (InputStream content = storage.open(KEY_PREFIX + attachment.sha256())) {
+            content.transferTo(outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Attachment download failed", e);
+        }
+    }
+
+    public void deleteAttachment(Integer issueId, Integer attachmentId) {
+        Attachment attachment = attachmentRepository.findByIdAndIssueId(attachmentId, issueId)
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment with id [%s] not found".formatted(attachmentId)));
+        transactionTemplate.executeWithoutResult(status -> {
+            attachmentRepository.delete(attachment);
+            deleteUnreferenced(List.of(attachment));
+        });
+    }
+
+    // after commit the original transaction is finished, the cleanup needs one of its own
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onIssueChanged(IssueChangedEvent event) {
+        if (event.type() != IssueChangeType.DELETED) {
+            return;
+        }
+        List<Attachment> attachments = attachmentRepository.findAllByIssueIdOrderById(event.issueId());
+        if (!attachments.isEmpty()) {
+            attachmentRepository.deleteAllInBatch(attachments);
+            deleteUnreferenced(attachments);
+        }
+    }
+
+    // has to run in the transaction that deleted the rows, hashes are locked in order so two deletes cannot deadlock
+    private void deleteUnreferenced(List<Attachment> attachments) {
+        attachmentRepository.flush();
+        for (String sha256 : attachments.stream().map(Attachment::getSha256).distinct().sorted().toList()) {
+            attachmentRepository.lockContent(sha256);
+            if (attachmentRepository.existsBySha256(sha256)) {
+                continue;
+            }
+            try {
+                storage.delete(KEY_PREFIX + sha256);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Attachment delete failed", e);
+            }
+        }
+    }
+
+    private static class SizeLimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        SizeLimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int read) {
+            count += read;
+            if (count > limit) {
+                throw new PayloadTooLargeException("Attachment exceeds %d bytes".formatted(limit));
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.bugReportSystem.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bugReportSystem.dtos.IngestStats;
+import org.bugReportSystem.exception.NotValidResourceException;
+import org.bugReportSystem.requests.CrashReportRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+@Component
+public class CrashReportIngestor {
+    public static final int MAX_FINGERPRINT_FRAMES = 20;
+    public static final int MAX_FLUSH_ATTEMPTS = 3;
+    private static final Logger log = LoggerFactory.getLogger(CrashReportIngestor.class);
+    private static final Pattern LINE_NUMBER = Pattern.compile(":\\d+\\)");
+    private static final Pattern GENERATED_CLASS = Pattern.compile("\\$\\$Lambda[^.(]*|/0x\\p{XDigit}+");
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private final IssueService issueService;
+    private final BlockingQueue<PendingReport> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread flusher = new Thread(this::run, "crash-report-flusher");
+    private volatile boolean running = true;
+
+    public CrashReportIngestor(IssueService issueService,
+                               @Value("${issues.ingest.queue-capacity:20000}") int queueCapacity,
+                               @Value("${issues.ingest.batch-size:500}") int batchSize,
+                               @Value("${issues.ingest.flush-interval-ms:200}") long flushIntervalMillis) {
+        this.issueService = issueService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // false when the queue is full and the caller should back off
+    public boolean offer(CrashReportRequest report) {
+        if ((report.stackTrace() == null || report.stackTrace().isBlank())
+                && (report.title() == null || report.title().isBlank())) {
+            throw new NotValidResourceException("A crash report needs a title or a stack trace");
+        }
+        if (!queue.offer(pending(report))) {
+            rejected.increment();
+            return false;
+        }
+        accepted.increment();
+        return true;
+    }
+
+    public IngestStats getStats() {
+        return new IngestStats(queue.size(), accepted.sum(), rejected.sum(), persisted.sum(), dropped.sum());
+    }
+
+    private void run() {
+        List<PendingReport> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingReport first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingReport> batch) {
+        // duplicates inside one batch become a single row update
+        Map<String, PendingReport> merged = new LinkedHashMap<>();
+        for (PendingReport report : batch) {
+            merged.merge(report.fingerprint(), report, (a, b) -> new PendingReport(a.fingerprint(), a.title(), a.description(), a.reporterEmail(),
+                    a.count() + b.count()));
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                issueService.recordCrashReports(merged.values());
+                persisted.add(batch.size());
+                return;
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                // another writer created or touched one of the issues, the retry sees its row
+                if (attempt == MAX_FLUSH_ATTEMPTS) {
+                    dropped.add(batch.size());
+                    log.warn("Dropping {} crash reports after {} attempts", batch.size(), attempt, e);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                dropped.add(batch.size());
+                log.error("Dropping {} crash reports", batch.size(), e);
+                return;
+            }
+        }
+    }
+
+    // only what the issue keeps is queued, a full queue must not hold 20000 complete stack traces
+    static PendingReport pending(CrashReportRequest report) {
+        String trace = report.stackTrace() == null ? "" : report.stackTrace().strip();
+        String title = report.title() != null && !report.title().isBlank() ? report.title() : trace.lines().findFirst().orElse("");
+        String description = report.message() == null || report.message().isBlank() ? trace : report.message() + "\n\n" + trace;
+        String reporter = report.reporterEmail() == null ? IssueService.CRASH_REPORTER : report.reporterEmail();
+        return new PendingReport(fingerprint(report), truncate(title), truncate(description), truncate(reporter), 1);
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= IssueService.MAX_TEXT_LENGTH ? value : value.substring(0, IssueService.MAX_TEXT_LENGTH);
+    }
+
+    // exception type plus the top frames without line numbers, so rebuilt or redeployed code keeps its fingerprint
+    public static String fingerprint(CrashReportRequest report) {
+        StringBuilder canonical = new StringBuilder();
+        int frames = 0;
+        if (report.stackTrace() != null) {
+            for (String line : report.stackTrace().lines().map(String::strip).toList()) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (canonical.isEmpty()) {
+                    int separator = line.indexOf(':');
+                    canonical.append(separator < 0 ? line : line.substring(0, separator)).append('\n');
+                } else if (line.startsWith("at ")) {
+                    String frame = LINE_NUMBER.matcher(line).replaceAll(")");
+                    canonical.append(GENERATED_CLASS.matcher(frame).replaceAll("")).append('\n');
+                    if (++frames == MAX_FINGERPRINT_FRAMES) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (frames == 0 && report.title() != null) {
+            canonical.append(DIGITS.matcher(report.title().strip().toLowerCase()).replaceAll("#"));
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public record PendingReport(String fingerprint, String title, String description, String reporterEmail, int count) {
+    }
+}
@@ -0,0 +1,201 @@
+package org.bugReportSystem.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bugReportSystem.entities.IdempotencyRecord;
+import org.bugReportSystem.exception.ConflictException;
+import org.bugReportSystem.exception.NotValidResourceException;
+import org.bugReportSystem.exception.UnprocessableEntityException;
+import org.bugReportSystem.repositories.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyService {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 255;
+    public static final int PURGE_BATCH_SIZE = 1000;
+    private static final String TEXT = "text";
+    private static final String JSON = "json";
+    private static final String EMPTY = "empty";
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final long waitMillis;
+    private final int maxLocalEntries;
+    private final Map<String, LocalEntry> local = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository, ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${idempotency.lease-ms:300000}") long leaseMillis,
+                              @Value("${idempotency.wait-ms:10000}") long waitMillis,
+                              @Value("${idempotency.local-max-entries:100000}") int maxLocalEntries) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofMillis(leaseMillis);
+        this.waitMillis = waitMillis;
+        this.maxLocalEntries = maxLocalEntries;
+    }
+
+    // runs action once per scope and key; repeats get the stored response, concurrent repeats wait for the first one
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new NotValidResourceException("Invalid %s header".formatted(HEADER));
+        }
+        String id = scope + ":" + key;
+        String requestHash = hash(request);
+        LocalEntry entry = new LocalEntry(requestHash, new CompletableFuture<>(), Instant.now().plus(ttl));
+        // when full, new keys only go through the table until purgeLocal makes room
+        LocalEntry existing = local.size() < maxLocalEntries ? local.putIfAbsent(id, entry) : local.get(id);
+        while (existing != null && existing.expired()) {
+            local.remove(id, existing);
+            existing = local.putIfAbsent(id, entry);
+        }
+        if (existing != null) {
+            checkSameRequest(existing.requestHash(), requestHash);
+            return replay(await(existing.response()));
+        }
+        String owner = UUID.randomUUID().toString();
+        boolean claimed = false;
+        try {
+            Instant now = Instant.now();
+            claimed = repository.claim(id, requestHash, now, owner, now.plus(lease)) == 1;
+            if (!claimed) {
+                StoredResponse stored = fromRecord(repository.findById(id).orElse(null), requestHash);
+                entry.response().complete(stored);
+                return replay(stored);
+            }
+            ResponseEntity<?> response = action.get();
+            StoredResponse stored = store(response);
+            if (response.getStatusCode().is5xxServerError()) {
+                // a server error is not an answer, the client may try again with the same key
+                repository.release(id, owner);
+                local.remove(id, entry);
+            } else {
+                repository.complete(id, owner, stored.status(), stored.contentKind(), stored.body());
+            }
+            entry.response().complete(stored);
+            return response;
+        } catch (RuntimeException e) {
+            local.remove(id, entry);
+            entry.response().completeExceptionally(e);
+            if (claimed) {
+                repository.release(id, owner);
+            }
+            throw e;
+        }
+    }
+
+    // finished responses can be served from the table, only in-flight requests must stay
+    @Scheduled(fixedDelayString = "${idempotency.local-purge-interval-ms:10000}")
+    public void purgeLocal() {
+        local.values().removeIf(cached -> cached.expired() || cached.response().isDone());
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(ttl);
+        while (repository.deleteExpired(cutoff, PURGE_BATCH_SIZE) == PURGE_BATCH_SIZE) {
+            // keep deleting in small transactions
+        }
+    }
+
+    private StoredResponse fromRecord(IdempotencyRecord record, String requestHash) {
+        if (record == null) {
+            // released by a failed first attempt between our claim and read
+            throw new ConflictException("Request with this %s failed, retry".formatted(HEADER));
+        }
+        checkSameRequest(record.getRequestHash(), requestHash);
+        if (record.getStatus() == null) {
+            throw new ConflictException("A request with this %s is still in progress".formatted(HEADER));
+        }
+        return new StoredResponse(record.getStatus(), record.getContentKind(), record.getBody());
+    }
+
+    private void checkSameRequest(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new UnprocessableEntityException("%s was already used for a different request".formatted(HEADER));
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> response) {
+        try {
+            return response.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new ConflictException("Request with this %s failed, retry".formatted(HEADER));
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this %s is still in progress".formatted(HEADER));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this %s is still in progress".formatted(HEADER));
+        }
+    }
+
+    private StoredResponse store(ResponseEntity<?> response) {
+        int status = response.getStatusCode().value();
+        Object body = response.getBody();
+        if (body == null) {
+            return new StoredResponse(status, EMPTY, null);
+        }
+        if (body instanceof String text) {
+            return new StoredResponse(status, TEXT, text);
+        }
+        try {
+            return new StoredResponse(status, JSON, objectMapper.writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response", e);
+        }
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.valueOf(stored.status()))
+                .header(REPLAYED_HEADER, "true");
+        return switch (stored.contentKind()) {
+            case JSON -> builder.contentType(MediaType.APPLICATION_JSON).body(stored.body());
+            case TEXT -> builder.body(stored.body());
+            default -> builder.build();
+        };
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash request", e);
+        }
+    }
+
+    private record StoredResponse(int status, String contentKind, String body) {
+    }
+
+    private record LocalEntry(String requestHash, CompletableFuture<StoredResponse> response, Instant expiresAt) {
+        boolean expired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.dtos.IssueAggregates;
+import org.bugReportSystem.dtos.IssueDetailsDTO;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+import org.bugReportSystem.events.IssueChangedEvent;
+import org.bugReportSystem.repositories.IssueRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class IssueAggregateCounters {
+    private final IssueRepository issueRepository;
+    private final LongAdder total = new LongAdder();
+    private final Map<IssueColumn, LongAdder> columns = new EnumMap<>(IssueColumn.class);
+    private final Map<Priority, LongAdder> priorities = new EnumMap<>(Priority.class);
+    private final Map<Integer, LongAdder> assignees = new ConcurrentHashMap<>();
+    private final LongAdder unassigned = new LongAdder();
+    private volatile Instant reconciledAt;
+
+    public IssueAggregateCounters(IssueRepository issueRepository) {
+        this.issueRepository = issueRepository;
+        for (IssueColumn column : IssueColumn.values()) {
+            columns.put(column, new LongAdder());
+        }
+        for (Priority priority : Priority.values()) {
+            priorities.put(priority, new LongAdder());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        apply(event.previous(), -1);
+        apply(event.current(), 1);
+    }
+
+    private void apply(IssueDetailsDTO issue, int delta) {
+        if (issue == null) {
+            return;
+        }
+        total.add(delta);
+        if (issue.column() != null) {
+            columns.get(issue.column()).add(delta);
+        }
+        if (issue.priority() != null) {
+            priorities.get(issue.priority()).add(delta);
+        }
+        if (issue.assigneeId() == null) {
+            unassigned.add(delta);
+        } else {
+            assignees.computeIfAbsent(issue.assigneeId(), id -> new LongAdder()).add(delta);
+        }
+    }
+
+    public IssueAggregates getAggregates() {
+        Map<IssueColumn, Long> columnCounts = new EnumMap<>(IssueColumn.class);
+        columns.forEach((column, count) -> columnCounts.put(column, count.sum()));
+        Map<Priority, Long> priorityCounts = new EnumMap<>(Priority.class);
+        priorities.forEach((priority, count) -> priorityCounts.put(priority, count.sum()));
+        Map<Integer, Long> assigneeCounts = new HashMap<>();
+        assignees.forEach((id, count) -> {
+            long sum = count.sum();
+            if (sum != 0) {
+                assigneeCounts.put(id, sum);
+            }
+        });
+        return new IssueAggregates(total.sum(), columnCounts, priorityCounts, assigneeCounts, unassigned.sum(),
+                reconciledAt);
+    }
+
+    // a change committed between the GROUP BY and the reset is only picked up by the next run
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${issues.aggregates.reconcile-interval-ms:300000}",
+            fixedDelayString = "${issues.aggregates.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        List<Object[]> byColumn = issueRepository.countByColumn();
+        List<Object[]> byPriority = issueRepository.countByPriority();
+        List<Object[]> byAssignee = issueRepository.countByAssignee();
+        long issues = 0;
+        Map<IssueColumn, Long> columnCounts = new EnumMap<>(IssueColumn.class);
+        for (Object[] row : byColumn) {
+            issues += (Long) row[1];
+            if (row[0] != null) {
+                columnCounts.put((IssueColumn) row[0], (Long) row[1]);
+            }
+        }
+        Map<Priority, Long> priorityCounts = new EnumMap<>(Priority.class);
+        for (Object[] row : byPriority) {
+            if (row[0] != null) {
+                priorityCounts.put((Priority) row[0], (Long) row[1]);
+            }
+        }
+        Map<Integer, Long> assigneeCounts = new HashMap<>();
+        long unassignedCount = 0;
+        for (Object[] row : byAssignee) {
+            if (row[0] == null) {
+                unassignedCount = (Long) row[1];
+            } else {
+                assigneeCounts.put((Integer) row[0], (Long) row[1]);
+            }
+        }
+        reset(total, issues);
+        columns.forEach((column, count) -> reset(count, columnCounts.getOrDefault(column, 0L)));
+        priorities.forEach((priority, count) -> reset(count, priorityCounts.getOrDefault(priority, 0L)));
+        assignees.forEach((id, count) -> reset(count, assigneeCounts.getOrDefault(id, 0L)));
+        assigneeCounts.forEach((id, count) -> assignees.computeIfAbsent(id, key -> {
+            LongAdder adder = new LongAdder();
+            adder.add(count);
+            return adder;
+        }));
+        reset(unassigned, unassignedCount);
+        reconciledAt = Instant.now();
+    }
+
+    // an add instead of reset() keeps increments that land while the counter is being corrected
+    private static void reset(LongAdder adder, long value) {
+        adder.add(value - adder.sum());
+    }
+}
@@ -0,0 +1,111 @@
+package org.bugReportSystem.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.bugReportSystem.dtos.ArchivedIssueDTO;
+import org.bugReportSystem.dtos.IssueDetailsDTO;
+import org.bugReportSystem.dtos.IssueSearchResult;
+import org.bugReportSystem.entities.ArchivedIssue;
+import org.bugReportSystem.entities.Issue;
+import org.bugReportSystem.events.IssueChangedEvent;
+import org.bugReportSystem.exception.ResourceNotFoundException;
+import org.bugReportSystem.repositories.ArchivedIssueRepository;
+import org.bugReportSystem.repositories.IssueRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class IssueArchiveService {
+    public static final int DEFAULT_LIST_SIZE = 50;
+    public static final int MAX_LIST_SIZE = 200;
+    private final IssueRepository issueRepository;
+    private final ArchivedIssueRepository archivedIssueRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration archiveAfter;
+    private final int batchSize;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public IssueArchiveService(IssueRepository issueRepository, ArchivedIssueRepository archivedIssueRepository,
+                               PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                               @Value("${issues.archive.after-days:30}") long archiveAfterDays,
+                               @Value("${issues.archive.batch-size:200}") int batchSize) {
+        this.issueRepository = issueRepository;
+        this.archivedIssueRepository = archivedIssueRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.archiveAfter = Duration.ofDays(archiveAfterDays);
+        this.batchSize = batchSize;
+    }
+
+    // short transactions so row locks and WAL bursts stay small while the board keeps being used
+    @Scheduled(fixedDelayString = "${issues.archive.interval-ms:3600000}")
+    public int archiveDone() {
+        Instant cutoff = Instant.now().minus(archiveAfter);
+        int total = 0;
+        Integer archived;
+        do {
+            archived = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += archived == null ? 0 : archived;
+        } while (archived != null && archived == batchSize);
+        return total;
+    }
+
+    private int archiveBatch(Instant cutoff) {
+        List<Integer> ids = issueRepository.lockArchivable(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Issue> issues = issueRepository.findAllById(ids);
+        Instant now = Instant.now();
+        // persist rather than save, save would merge and select every assigned id first
+        issues.forEach(issue -> entityManager.persist(ArchivedIssue.from(issue, now)));
+        entityManager.flush();
+        issueRepository.deleteAllByIdInBatch(ids);
+        issues.forEach(issue -> eventPublisher.publishEvent(IssueChangedEvent.archived(IssueDetailsDTO.from(issue))));
+        return ids.size();
+    }
+
+    public List<ArchivedIssueDTO> getArchivedIssues(Instant before, Integer size) {
+        int listSize = size == null ? DEFAULT_LIST_SIZE : Math.max(1, Math.min(size, MAX_LIST_SIZE));
+        return archivedIssueRepository.findRecent(before == null ? Instant.now() : before, Limit.of(listSize))
+                .stream().map(ArchivedIssueDTO::from).toList();
+    }
+
+    public ArchivedIssueDTO getArchivedIssue(Integer id) {
+        return archivedIssueRepository.findById(id).map(ArchivedIssueDTO::from)
+                .orElseThrow(() -> new ResourceNotFoundException("Archived issue with id [%s] not found".formatted(id)));
+    }
+
+    public List<IssueSearchResult> searchArchive(String query, Integer limit) {
+        String tsQuery = IssueService.toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return List.of();
+        }
+        int resultLimit = limit == null ? IssueService.MAX_SEARCH_RESULTS
+                : Math.max(1, Math.min(limit, IssueService.MAX_SEARCH_RESULTS));
+        return archivedIssueRepository.search(tsQuery, resultLimit);
+    }
+
+    @Transactional
+    public IssueDetailsDTO restore(Integer id) {
+        if (archivedIssueRepository.restore(id) == 0) {
+            throw new ResourceNotFoundException("Archived issue with id [%s] not found".formatted(id));
+        }
+        archivedIssueRepository.deleteById(id);
+        IssueDetailsDTO restored = IssueDetailsDTO.from(issueRepository.findById(id).orElseThrow());
+        eventPublisher.publishEvent(IssueChangedEvent.created(restored));
+        return restored;
+    }
+}
@@ -0,0 +1,165 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.dtos.CacheStats;
+import org.bugReportSystem.dtos.IssueBoardRow;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.events.IssueChangedEvent;
+import org.bugReportSystem.events.PgNotificationListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Columns are invalidated by local changes and, through IssueChangeNotifications, by those of other nodes;
+// while that connection is down every read goes to the database.
+@Component
+public class IssueBoardCache {
+    private final PgNotificationListener notifications;
+    private final int maxCachedIssues;
+    private final Map<IssueColumn, ColumnSnapshot> snapshots = new EnumMap<>(IssueColumn.class);
+    // bumped on every invalidation so a load that raced with a write is never stored
+    private final AtomicLongArray generations = new AtomicLongArray(IssueColumn.values().length);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long cachedIssues;
+
+    public IssueBoardCache(PgNotificationListener notifications,
+                           @Value("${issues.board-cache.max-issues:20000}") int maxCachedIssues) {
+        this.notifications = notifications;
+        this.maxCachedIssues = maxCachedIssues;
+    }
+
+    public BoardColumn get(IssueColumn column, Supplier<List<IssueBoardRow>> loader) {
+        ColumnSnapshot snapshot = null;
+        if (notifications.isConnected()) {
+            synchronized (this) {
+                snapshot = snapshots.get(column);
+            }
+        }
+        if (snapshot != null) {
+            hits.increment();
+            snapshot.lastAccess = System.nanoTime();
+            return snapshot.column;
+        }
+        misses.increment();
+        long generation = generations.get(column.ordinal());
+        BoardColumn loaded = BoardColumn.of(List.copyOf(loader.get()));
+        if (notifications.isConnected()) {
+            put(column, generation, loaded);
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(IssueColumn... columns) {
+        for (IssueColumn column : columns) {
+            if (column == null) {
+                continue;
+            }
+            generations.incrementAndGet(column.ordinal());
+            ColumnSnapshot removed = snapshots.remove(column);
+            if (removed != null) {
+                cachedIssues -= removed.column.issues().size();
+            }
+        }
+    }
+
+    // rows carry the assignee's name, so a rename drops every column showing them; call after the user is saved
+    public void invalidateAssignee(Integer assigneeId) {
+        invalidateColumnsOf(assigneeId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateColumnsOf(assigneeId);
+                }
+            });
+        }
+    }
+
+    // ordered first so clients notified about a change never read the column from the old snapshot
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        invalidate(event.previous() == null ? null : event.previous().column(),
+                event.current() == null ? null : event.current().column());
+    }
+
+    public synchronized CacheStats getStats() {
+        return CacheStats.of(hits.sum(), misses.sum(), evictions.sum(), cachedIssues);
+    }
+
+    private synchronized void invalidateColumnsOf(Integer assigneeId) {
+        for (IssueColumn column : IssueColumn.values()) {
+            // a load running meanwhile may have read the old name
+            generations.incrementAndGet(column.ordinal());
+            ColumnSnapshot snapshot = snapshots.get(column);
+            if (snapshot != null && snapshot.column.issues().stream()
+                    .anyMatch(issue -> assigneeId.equals(issue.assigneeId()))) {
+                snapshots.remove(column);
+                cachedIssues -= snapshot.column.issues().size();
+            }
+        }
+    }
+
+    private synchronized void put(IssueColumn column, long generation, BoardColumn loaded) {
+        if (generations.get(column.ordinal()) != generation || loaded.issues().size() > maxCachedIssues) {
+            return;
+        }
+        ColumnSnapshot previous = snapshots.put(column, new ColumnSnapshot(loaded));
+        if (previous != null) {
+            cachedIssues -= previous.column.issues().size();
+        }
+        cachedIssues += loaded.issues().size();
+        while (cachedIssues > maxCachedIssues) {
+            evictLeastRecentlyUsed(column);
+        }
+    }
+
+    private void evictLeastRecentlyUsed(IssueColumn keep) {
+        IssueColumn victim = null;
+        long oldestAccess = Long.MAX_VALUE;
+        for (Map.Entry<IssueColumn, ColumnSnapshot> entry : snapshots.entrySet()) {
+            if (entry.getKey() != keep && entry.getValue().lastAccess < oldestAccess) {
+                victim = entry.getKey();
+                oldestAccess = entry.getValue().lastAccess;
+            }
+        }
+        cachedIssues -= snapshots.remove(victim).column.issues().size();
+        evictions.increment();
+    }
+
+    // fingerprint changes whenever an issue enters, leaves or is modified in the column, used as its ETag
+    public record BoardColumn(List<IssueBoardRow> issues, long fingerprint) {
+        static BoardColumn of(List<IssueBoardRow> issues) {
+            long fingerprint = issues.size();
+            for (IssueBoardRow issue : issues) {
+                fingerprint = 31 * fingerprint + issue.id();
+                fingerprint = 31 * fingerprint + issue.version();
+                // a rebalance changes ranks without a new version
+                fingerprint = 31 * fingerprint + Objects.hashCode(issue.rank());
+            }
+            return new BoardColumn(issues, fingerprint);
+        }
+    }
+
+    private static final class ColumnSnapshot {
+        private final BoardColumn column;
+        private volatile long lastAccess = System.nanoTime();
+
+        private ColumnSnapshot(BoardColumn column) {
+            this.column = column;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.bugReportSystem.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bugReportSystem.dtos.IssueChangeEntry;
+import org.bugReportSystem.dtos.IssueChanges;
+import org.bugReportSystem.dtos.IssueDetailsDTO;
+import org.bugReportSystem.entities.IssueEvent;
+import org.bugReportSystem.entities.IssueEventCompaction;
+import org.bugReportSystem.events.IssueChangedEvent;
+import org.bugReportSystem.exception.ResourceGoneException;
+import org.bugReportSystem.repositories.IssueEventCompactionRepository;
+import org.bugReportSystem.repositories.IssueEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class IssueChangeLog {
+    public static final int DEFAULT_CHANGES_LIMIT = 500;
+    public static final int MAX_CHANGES_LIMIT = 5000;
+    public static final int COMPACTION_BATCH_SIZE = 1000;
+    public static final int POSITION_BATCH_SIZE = 5000;
+    private final IssueEventRepository issueEventRepository;
+    private final IssueEventCompactionRepository compactionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+
+    public IssueChangeLog(IssueEventRepository issueEventRepository, IssueEventCompactionRepository compactionRepository,
+                          ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                          @Value("${issues.events.retention-hours:168}") long retentionHours) {
+        this.issueEventRepository = issueEventRepository;
+        this.compactionRepository = compactionRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    // runs synchronously inside the transaction of the IssueService mutation
+    @EventListener
+    public void onIssueChanged(IssueChangedEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event.latest());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize issue [%s]".formatted(event.issueId()), e);
+        }
+        issueEventRepository.save(new IssueEvent(event.issueId(), event.type(), payload, Instant.now()));
+    }
+
+    public IssueChanges getChangesSince(long since, Integer limit) {
+        if (since > 0 && since < compactionRepository.findHorizon()) {
+            throw new ResourceGoneException("Changes since [%d] were compacted, reload the board".formatted(since));
+        }
+        int pageSize = limit == null ? DEFAULT_CHANGES_LIMIT : Math.max(1, Math.min(limit, MAX_CHANGES_LIMIT));
+        assignPositions();
+        List<IssueEvent> events = issueEventRepository.findByPositionGreaterThanOrderByPosition(since, Limit.of(pageSize + 1));
+        boolean hasMore = events.size() > pageSize;
+        List<IssueChangeEntry> changes = events.stream().limit(pageSize).map(this::toEntry).toList();
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).sequence();
+        return new IssueChanges(changes, next, hasMore);
+    }
+
+    // a reader that finds another one assigning just reads what is positioned so far; an open transaction
+    // holds back the events committed after it started until it ends
+    private void assignPositions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!issueEventRepository.tryLockPositions()) {
+                return;
+            }
+            int assigned;
+            do {
+                assigned = issueEventRepository.assignPositions(POSITION_BATCH_SIZE);
+            } while (assigned == POSITION_BATCH_SIZE);
+        });
+    }
+
+    private IssueChangeEntry toEntry(IssueEvent event) {
+        try {
+            return new IssueChangeEntry(event.getPosition(), event.getType(), event.getIssueId(),
+                    objectMapper.readValue(event.getPayload(), IssueDetailsDTO.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupted issue event [%d]".formatted(event.getPosition()), e);
+        }
+    }
+
+    // keeps only the latest event per issue once it is older than the retention window,
+    // deletion tombstones are dropped after twice the window and move the horizon forward
+    @Scheduled(fixedDelayString = "${issues.events.compaction-interval-ms:3600000}")
+    public void compact() {
+        Instant cutoff = Instant.now().minus(retention);
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    issueEventRepository.deleteSuperseded(cutoff, COMPACTION_BATCH_SIZE));
+        } while (deleted == COMPACTION_BATCH_SIZE);
+
+        long horizon = issueEventRepository.findLatestTombstoneBefore(cutoff.minus(retention));
+        if (horizon <= compactionRepository.findHorizon()) {
+            return;
+        }
+        // the horizon is recorded first so no client is answered from a log that already lost tombstones
+        transactionTemplate.executeWithoutResult(status -> {
+            compactionRepository.save(new IssueEventCompaction(horizon, Instant.now()));
+            compactionRepository.deleteOlderThan(horizon);
+        });
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    issueEventRepository.deleteTombstones(horizon, COMPACTION_BATCH_SIZE));
+        } while (deleted == COMPACTION_BATCH_SIZE);
+    }
+}
@@ -0,0 +1,88 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.dtos.IssueDetailsDTO;
+import org.bugReportSystem.enums.IssueChangeType;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+import org.bugReportSystem.events.IssueChangedEvent;
+import org.bugReportSystem.events.PgNotificationListener;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.UUID;
+
+// Carries issue changes to the board cache, the aggregate counters and the similarity index of the other nodes.
+// The payload only holds what the counters need, the similarity index reads the text back itself.
+@Component
+public class IssueChangeNotifications {
+    public static final String CHANNEL = "issue_changes";
+    private static final String SEPARATOR = "|";
+    private static final String NONE = "-";
+    // every node receives its own notifications too, it applied the change locally already
+    private final String nodeId = UUID.randomUUID().toString();
+    private final PgNotificationListener notifications;
+    private final IssueBoardCache boardCache;
+    private final IssueAggregateCounters aggregateCounters;
+    private final IssueSimilarityIndex similarityIndex;
+
+    public IssueChangeNotifications(PgNotificationListener notifications, IssueBoardCache boardCache,
+                                    IssueAggregateCounters aggregateCounters, IssueSimilarityIndex similarityIndex) {
+        this.notifications = notifications;
+        this.boardCache = boardCache;
+        this.aggregateCounters = aggregateCounters;
+        this.similarityIndex = similarityIndex;
+        notifications.subscribe(CHANNEL, this::apply, this::resync);
+    }
+
+    // runs inside the transaction of the mutation, NOTIFY is only delivered when it commits
+    @EventListener
+    public void onIssueChanged(IssueChangedEvent event) {
+        boolean textChanged = event.previous() == null || event.current() == null
+                || !Objects.equals(event.previous().title(), event.current().title())
+                || !Objects.equals(event.previous().description(), event.current().description());
+        notifications.publish(CHANNEL, String.join(SEPARATOR, nodeId, event.type().name(),
+                String.valueOf(event.issueId()), encode(event.previous()), encode(event.current()),
+                String.valueOf(textChanged)));
+    }
+
+    private void apply(String payload) {
+        String[] parts = payload.split("\\" + SEPARATOR, -1);
+        if (parts[0].equals(nodeId)) {
+            return;
+        }
+        int issueId = Integer.parseInt(parts[2]);
+        IssueChangedEvent event = new IssueChangedEvent(IssueChangeType.valueOf(parts[1]),
+                decode(issueId, parts[3], parts[4], parts[5]), decode(issueId, parts[6], parts[7], parts[8]));
+        boardCache.onIssueChanged(event);
+        aggregateCounters.onIssueChanged(event);
+        if (Boolean.parseBoolean(parts[9])) {
+            similarityIndex.refresh(issueId);
+        }
+    }
+
+    // changes made while the connection was down are lost, everything is read again
+    private void resync() {
+        boardCache.invalidate(IssueColumn.values());
+        aggregateCounters.reconcile();
+        similarityIndex.build();
+    }
+
+    private static String encode(IssueDetailsDTO issue) {
+        if (issue == null) {
+            return String.join(SEPARATOR, NONE, NONE, NONE);
+        }
+        return String.join(SEPARATOR, issue.column() == null ? "" : issue.column().name(),
+                issue.priority() == null ? "" : issue.priority().name(),
+                issue.assigneeId() == null ? "" : String.valueOf(issue.assigneeId()));
+    }
+
+    private static IssueDetailsDTO decode(int issueId, String column, String priority, String assigneeId) {
+        if (column.equals(NONE)) {
+            return null;
+        }
+        return new IssueDetailsDTO(issueId, null, null, column.isEmpty() ? null : IssueColumn.valueOf(column),
+                priority.isEmpty() ? null : Priority.valueOf(priority), null, null,
+                assigneeId.isEmpty() ? null : Integer.valueOf(assigneeId), 0, 0);
+    }
+}
@@ -0,0 +1,143 @@
+package org.bugReportSystem.services;
+
+import jakarta.annotation.PreDestroy;
+import org.bugReportSystem.dtos.IssueChangeMessage;
+import org.bugReportSystem.dtos.IssueDetailsDTO;
+import org.bugReportSystem.events.IssueChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class IssueEventBroadcaster {
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long emitterTimeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // connections are idle servlet async requests, a thread is only borrowed while a queue is being drained
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor();
+
+    public IssueEventBroadcaster(@Value("${issues.stream.max-subscribers:10000}") int maxSubscribers,
+                                 @Value("${issues.stream.buffer-size:64}") int bufferSize,
+                                 @Value("${issues.stream.timeout-ms:1800000}") long emitterTimeoutMillis,
+                                 @Value("${issues.stream.heartbeat-ms:15000}") long heartbeatMillis) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> evict(subscriber));
+        emitter.onError(e -> evict(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        IssueDetailsDTO issue = event.latest();
+        IssueChangeMessage message = new IssueChangeMessage(event.type(), issue.id(), issue.column(),
+                issue.priority(), issue.rank(), issue.version());
+        // no event id: log positions are only assigned when the change log is read, a reconnecting client
+        // resumes from the last position it got from /api/issues/changes
+        broadcast(SseEmitter.event().name("issue").data(message).build());
+    }
+
+    private void sendHeartbeats() {
+        if (!subscribers.isEmpty()) {
+            broadcast(SseEmitter.event().comment("heartbeat").build());
+        }
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.offer(event)) {
+                scheduleDrain(subscriber);
+            } else {
+                // the client is not keeping up, it has to reconnect and resync
+                evict(subscriber);
+            }
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while ((event = subscriber.queue.poll()) != null) {
+                    subscriber.emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                evict(subscriber);
+                return;
+            } finally {
+                subscriber.draining.set(false);
+            }
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.queue.clear();
+            subscriber.emitter.complete();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(this::evict);
+        dispatcher.shutdownNow();
+    }
+
+    private record Subscriber(SseEmitter emitter, BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue,
+                              AtomicBoolean draining) {
+        private Subscriber(SseEmitter emitter, BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue) {
+            this(emitter, queue, new AtomicBoolean());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.exception.NotValidResourceException;
+
+import java.util.Arrays;
+
+// Lexicographic card ranks over [0-9a-z]; a rank never ends with '0' so there is always room before it.
+public final class IssueRank {
+    public static final int REBALANCE_LENGTH = 24;
+    public static final int MAX_LENGTH = 64;
+    private static final int APPEND_WIDTH = 6;
+    private static final String ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = ALPHABET.length();
+
+    private IssueRank() {
+    }
+
+    // rank strictly between after and before, either side may be null for an open end
+    public static String between(String after, String before) {
+        validate(after);
+        validate(before);
+        if (after != null && before != null && after.compareTo(before) >= 0) {
+            throw new NotValidResourceException("Rank [%s] is not before [%s], reload the column".formatted(after, before));
+        }
+        StringBuilder rank = new StringBuilder();
+        String upper = before;
+        for (int i = 0; ; i++) {
+            int low = after != null && i < after.length() ? digit(after.charAt(i)) : 0;
+            int high = upper != null && i < upper.length() ? digit(upper.charAt(i)) : BASE;
+            if (low == high) {
+                rank.append(ALPHABET.charAt(low));
+                continue;
+            }
+            int middle = (low + high) / 2;
+            if (middle > low) {
+                rank.append(ALPHABET.charAt(middle));
+                return checkLength(rank);
+            }
+            // adjacent digits, keep the lower one and continue without an upper bound
+            rank.append(ALPHABET.charAt(low));
+            upper = null;
+        }
+    }
+
+    // next rank after the last card of a column, counting up at a fixed width so appends do not grow the rank
+    public static String after(String last) {
+        validate(last);
+        char[] digits = new char[APPEND_WIDTH];
+        Arrays.fill(digits, ALPHABET.charAt(0));
+        if (last == null) {
+            digits[0] = between(null, null).charAt(0);
+            return increment(digits, null);
+        }
+        last.getChars(0, Math.min(last.length(), APPEND_WIDTH), digits, 0);
+        return increment(digits, last);
+    }
+
+    private static String increment(char[] digits, String last) {
+        do {
+            int i = digits.length - 1;
+            while (i >= 0 && digits[i] == ALPHABET.charAt(BASE - 1)) {
+                digits[i--] = ALPHABET.charAt(0);
+            }
+            if (i < 0) {
+                // every position is exhausted, only a longer rank fits
+                return between(last, null);
+            }
+            digits[i] = ALPHABET.charAt(digit(digits[i]) + 1);
+        } while (digits[digits.length - 1] == ALPHABET.charAt(0));
+        return new String(digits);
+    }
+
+    // count evenly spaced ranks of equal width, using the lower half of the space to leave room for appends
+    public static String[] spread(int count) {
+        int width = 2;
+        long space = (long) BASE * BASE;
+        while (space / 2 <= count) {
+            width++;
+            space *= BASE;
+        }
+        long step = space / 2 / (count + 1);
+        String[] ranks = new String[count];
+        for (int i = 0; i < count; i++) {
+            ranks[i] = encode((i + 1) * step, width);
+        }
+        return ranks;
+    }
+
+    private static String encode(long value, int width) {
+        char[] digits = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            digits[i] = ALPHABET.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        int length = width;
+        while (length > 1 && digits[length - 1] == ALPHABET.charAt(0)) {
+            length--;
+        }
+        return new String(digits, 0, length);
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        return c - 'a' + 10;
+    }
+
+    private static void validate(String rank) {
+        if (rank == null) {
+            return;
+        }
+        // a trailing '0' leaves nothing between the rank and its prefix, between("a", "a0") would not fit
+        if (rank.isEmpty() || rank.length() > MAX_LENGTH || rank.charAt(rank.length() - 1) == ALPHABET.charAt(0)) {
+            throw new NotValidResourceException("Invalid rank [%s]".formatted(rank));
+        }
+        for (int i = 0; i < rank.length(); i++) {
+            char c = rank.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'z')) {
+                throw new NotValidResourceException("Invalid rank [%s]".formatted(rank));
+            }
+        }
+    }
+
+    private static String checkLength(StringBuilder rank) {
+        if (rank.length() > MAX_LENGTH) {
+            throw new NotValidResourceException("No room left between ranks, retry after the column is rebalanced");
+        }
+        return rank.toString();
+    }
+}
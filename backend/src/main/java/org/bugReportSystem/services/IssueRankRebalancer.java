@@ -0,0 +1,68 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.dtos.IssueDetailsDTO;
+import org.bugReportSystem.entities.Issue;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.events.IssueChangedEvent;
+import org.bugReportSystem.repositories.IssueRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class IssueRankRebalancer {
+    private final IssueRepository issueRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public IssueRankRebalancer(IssueRepository issueRepository, PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher) {
+        this.issueRepository = issueRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    // rewrites a column with evenly spaced, fixed width ranks once moves have made them long, missing or tied
+    @Scheduled(fixedDelayString = "${issues.rank.rebalance-interval-ms:300000}")
+    public void rebalance() {
+        for (IssueColumn column : IssueColumn.values()) {
+            if (issueRepository.countUnbalanced(column, IssueRank.REBALANCE_LENGTH) == 0) {
+                continue;
+            }
+            try {
+                rebalance(column);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // a card was moved meanwhile, the next run picks the column up again
+            }
+        }
+    }
+
+    public int rebalance(IssueColumn column) {
+        Integer changed = transactionTemplate.execute(status -> {
+            List<Issue> issues = issueRepository.findAllByColumnOrderByRank(column);
+            String[] ranks = IssueRank.spread(issues.size());
+            List<IssueChangedEvent> rewritten = new ArrayList<>();
+            for (int i = 0; i < issues.size(); i++) {
+                Issue issue = issues.get(i);
+                if (ranks[i].equals(issue.getRank())) {
+                    continue;
+                }
+                if (issueRepository.updateRank(issue.getId(), issue.getVersion(), ranks[i]) == 0) {
+                    // rolls the column back, the card was changed since it was read
+                    throw new ObjectOptimisticLockingFailureException(Issue.class, issue.getId());
+                }
+                IssueDetailsDTO previous = IssueDetailsDTO.from(issue);
+                rewritten.add(IssueChangedEvent.updated(previous, previous.withRank(ranks[i])));
+            }
+            rewritten.forEach(eventPublisher::publishEvent);
+            return rewritten.size();
+        });
+        return changed == null ? 0 : changed;
+    }
+}
@@ -1,60 +1,493 @@
 package org.bugReportSystem.services;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.bugReportSystem.dtos.CacheStats;
+import org.bugReportSystem.dtos.IssueBoard;
+import org.bugReportSystem.dtos.IssueBoardRow;
+import org.bugReportSystem.dtos.IssueBulkItemResult;
+import org.bugReportSystem.dtos.IssueBulkItemResult.Operation;
+import org.bugReportSystem.dtos.IssueBulkItemResult.Status;
+import org.bugReportSystem.dtos.IssueBulkResult;
+import org.bugReportSystem.dtos.IssueDTO;
+import org.bugReportSystem.dtos.IssueDetailsDTO;
+import org.bugReportSystem.dtos.IssueDuplicate;
+import org.bugReportSystem.dtos.IssueMoveResult;
+import org.bugReportSystem.dtos.IssuePage;
+import org.bugReportSystem.dtos.IssueSearchResult;
 import org.bugReportSystem.entities.Issue;
+import org.bugReportSystem.entities.User;
 import org.bugReportSystem.enums.IssueColumn;
 import org.bugReportSystem.enums.Priority;
+import org.bugReportSystem.events.IssueChangedEvent;
+import org.bugReportSystem.exception.ApiError;
+import org.bugReportSystem.exception.NotValidResourceException;
+import org.bugReportSystem.exception.PreconditionFailedException;
+import org.bugReportSystem.exception.ResourceNotFoundException;
 import org.bugReportSystem.repositories.IssueRepository;
 import org.bugReportSystem.repositories.UserRepository;
+import org.bugReportSystem.requests.IssueBulkRequest;
+import org.bugReportSystem.requests.IssueMoveRequest;
+import org.bugReportSystem.requests.IssuePositionRequest;
 import org.bugReportSystem.requests.IssueUpdateRequest;
+import org.bugReportSystem.validation.RequestValidators;
+import org.bugReportSystem.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class IssueService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int EXPORT_FLUSH_INTERVAL = 500;
+    public static final int MAX_BULK_SIZE = 1000;
+    public static final int MAX_SEARCH_RESULTS = 50;
+    public static final int MAX_SEARCH_TERMS = 8;
+    public static final int MAX_TEXT_LENGTH = 255;
+    public static final int MAX_DUPLICATES = 20;
+    public static final String CRASH_REPORTER = "crash-reports";
+    private static final Pattern SEARCH_TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
     private final IssueRepository issueRepository;
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final IssueBoardCache boardCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IssueSimilarityIndex similarityIndex;
     @Autowired
     private UserService userService;
+    @PersistenceContext
+    private EntityManager entityManager;
     @Autowired
-    public IssueService(IssueRepository issueRepository, UserRepository userRepository) {
+    public IssueService(IssueRepository issueRepository, UserRepository userRepository, ObjectMapper objectMapper,
+                        IssueBoardCache boardCache, PlatformTransactionManager transactionManager,
+                        ApplicationEventPublisher eventPublisher, IssueSimilarityIndex similarityIndex) {
         this.issueRepository = issueRepository;
         this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.boardCache = boardCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.similarityIndex = similarityIndex;
     }
 
+    @Transactional
     public void createIssue(String title, String description, String reporterEmail) {
-        issueRepository.save(new Issue(title, IssueColumn.BACKLOG, Priority.MEDIUM, description, reporterEmail));
+        Issue issue = new Issue(title, IssueColumn.BACKLOG, Priority.MEDIUM, description, reporterEmail);
+        issue.setRank(IssueRank.after(issueRepository.findLastRank(IssueColumn.BACKLOG)));
+        Issue saved = issueRepository.save(issue);
+        eventPublisher.publishEvent(IssueChangedEvent.created(IssueDetailsDTO.from(saved)));
+    }
+
+    // the original listing of whole entities in board order, the board endpoints serve the lighter rows
+    @Transactional(readOnly = true)
+    public List<Issue> getIssues() {
+        List<Issue> issues = new ArrayList<>();
+        for (IssueColumn column : IssueColumn.values()) {
+            issues.addAll(issueRepository.findAllWithAssigneeByColumn(column));
+        }
+        return issues;
+    }
+
+    public List<IssueBoardRow> getColumn(IssueColumn column) {
+        return loadColumn(column).issues();
+    }
+
+    public IssueBoard getBoard() {
+        return buildBoard(IssueColumn.values());
+    }
+
+    public IssueBoard getBoard(IssueColumn column) {
+        return buildBoard(column);
+    }
+
+    private IssueBoard buildBoard(IssueColumn... columns) {
+        List<IssueBoardRow> issues = new ArrayList<>();
+        long fingerprint = 1;
+        for (IssueColumn column : columns) {
+            IssueBoardCache.BoardColumn boardColumn = loadColumn(column);
+            issues.addAll(boardColumn.issues());
+            fingerprint = 31 * fingerprint + boardColumn.fingerprint();
+        }
+        return new IssueBoard(issues, Long.toHexString(fingerprint));
+    }
+
+    private IssueBoardCache.BoardColumn loadColumn(IssueColumn column) {
+        return boardCache.get(column, () -> issueRepository.findBoardColumn(column));
+    }
+
+    public IssuePage getIssuePage(String cursor, Integer size, String column, String priority,
+                                  Integer assigneeId, String reporterEmail) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Issue> issues = issueRepository.findPage(
+                decodeCursor(cursor),
+                column == null ? null : IssueColumn.fromName(column),
+                priority == null ? null : Priority.fromName(priority),
+                assigneeId,
+                reporterEmail,
+                pageSize + 1);
+        List<IssueDetailsDTO> page = issues.stream().limit(pageSize).map(IssueDetailsDTO::from).toList();
+        if (issues.size() <= pageSize) {
+            return new IssuePage(page, null);
+        }
+        return new IssuePage(page, encodeCursor(page.get(pageSize - 1).id()));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportIssues(Integer afterId, OutputStream outputStream) {
+        try (Stream<Issue> issues = issueRepository.streamAfter(afterId == null ? 0 : afterId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            int written = 0;
+            Iterator<Issue> iterator = issues.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(IssueDetailsDTO.from(iterator.next()));
+                generator.writeRaw('\n');
+                if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                    // keeping the persistence context empty so memory stays flat
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Issue export failed", e);
+        }
+    }
+
+    public List<IssueSearchResult> searchIssues(String query, Integer limit) {
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return List.of();
+        }
+        int resultLimit = limit == null ? MAX_SEARCH_RESULTS : Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return issueRepository.search(tsQuery, resultLimit);
+    }
+
+    // "null point" -> "null:* & point:*", dropping everything that could break to_tsquery syntax
+    static String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        StringBuilder tsQuery = new StringBuilder();
+        int terms = 0;
+        for (String term : SEARCH_TERM_SEPARATOR.split(query.toLowerCase())) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            if (terms++ == MAX_SEARCH_TERMS) {
+                break;
+            }
+            if (!tsQuery.isEmpty()) {
+                tsQuery.append(" & ");
+            }
+            tsQuery.append(term).append(":*");
+        }
+        return tsQuery.toString();
+    }
+
+    static String encodeCursor(Integer lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Integer decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new NotValidResourceException("Invalid cursor [%s]".formatted(cursor));
+        }
+    }
+
+    public List<IssueDuplicate> findDuplicates(Integer id, Integer limit) {
+        return resolveDuplicates(similarityIndex.findSimilar(id, duplicatesLimit(limit)));
+    }
+
+    public List<IssueDuplicate> findDuplicates(IssueDTO issue, Integer limit) {
+        return resolveDuplicates(similarityIndex.findSimilar(issue.title(), issue.description(), duplicatesLimit(limit)));
     }
 
-    public Iterable<Issue> getIssues() {
-        return issueRepository.findAll();
+    private int duplicatesLimit(Integer limit) {
+        return limit == null ? MAX_DUPLICATES : Math.max(1, Math.min(limit, MAX_DUPLICATES));
+    }
+
+    // the index only knows ids, titles and columns come from one primary key lookup
+    private List<IssueDuplicate> resolveDuplicates(IssueSimilarityIndex.Match[] matches) {
+        if (matches.length == 0) {
+            return List.of();
+        }
+        List<Integer> ids = new ArrayList<>(matches.length);
+        for (IssueSimilarityIndex.Match match : matches) {
+            ids.add(match.issueId());
+        }
+        Map<Integer, Issue> issues = issueRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Issue::getId, Function.identity()));
+        List<IssueDuplicate> duplicates = new ArrayList<>(matches.length);
+        for (IssueSimilarityIndex.Match match : matches) {
+            Issue issue = issues.get(match.issueId());
+            if (issue != null) {
+                duplicates.add(new IssueDuplicate(issue.getId(), issue.getTitle(), issue.getColumn(), match.distance()));
+            }
+        }
+        return duplicates;
     }
 
     public Issue getIssueById(String id) {
         return issueRepository.findById(Integer.parseInt(id)).orElseGet(() -> null);
     }
 
-    public void updateStatus(Issue issue, String column) {
-        issue.setIssueColumn(IssueColumn.valueOf(column.toUpperCase()));
-        issueRepository.save(issue);
+    // the card keeps its rank, interleaving with the cards already in the target column
+    @Transactional
+    public IssueDetailsDTO updateStatus(String id, String column, Long expectedVersion) {
+        return move(Integer.parseInt(id), IssueColumn.fromName(column), null, expectedVersion);
     }
 
-    public void updateIssue(IssueUpdateRequest issue) {
+    @Transactional
+    public IssueDetailsDTO moveIssue(Integer id, IssuePositionRequest position, Long expectedVersion) {
+        if (position.column() == null) {
+            throw new NotValidResourceException("Target column is required");
+        }
+        IssueColumn column = IssueColumn.fromName(position.column());
+        return move(id, column, IssueRank.between(position.after(), position.before()), expectedVersion);
+    }
+
+    private IssueDetailsDTO move(Integer id, IssueColumn column, String rank, Long expectedVersion) {
+        List<IssueMoveResult> moved = issueRepository.move(id, column.name(), rank, expectedVersion);
+        if (moved.isEmpty()) {
+            if (!issueRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Issue with id [%s] not found".formatted(id));
+            }
+            throw new PreconditionFailedException("Issue [%s] does not have version %d".formatted(id, expectedVersion));
+        }
+        IssueMoveResult result = moved.get(0);
+        IssueDetailsDTO current = result.toDetails();
+        eventPublisher.publishEvent(IssueChangedEvent.updated(result.toPreviousDetails(), current));
+        return current;
+    }
+
+    @Transactional
+    public Issue updateIssue(IssueUpdateRequest issue, Long expectedVersion) {
         Issue issueToUpdate = issueRepository.findById(issue.id()).orElseGet(() -> null);
         if (issueToUpdate == null) {
-            return;
+            return null;
         }
-        if (issue.assignee().isPresent()) {
+        checkVersion(issueToUpdate, expectedVersion);
+        IssueDetailsDTO previous = IssueDetailsDTO.from(issueToUpdate);
+        if (issue.assignee() != null && issue.assignee().isPresent()) {
             issueToUpdate.setAssignee(userRepository.findById(Integer.parseInt(issue.assignee().get())).orElseGet(() -> null));
         }
-        issueToUpdate.setPriority(Priority.valueOf(issue.priority().toUpperCase()));
-        issueToUpdate.setIssueColumn(IssueColumn.valueOf(issue.column().toUpperCase()));
+        applyUpdate(issueToUpdate, issue);
+        Issue saved = saveVersioned(issueToUpdate);
+        eventPublisher.publishEvent(IssueChangedEvent.updated(previous, IssueDetailsDTO.from(saved)));
+        return saved;
+    }
+
+    private void checkVersion(Issue issue, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != issue.getVersion()) {
+            throw new PreconditionFailedException("Issue [%s] has version %d, expected %d"
+                    .formatted(issue.getId(), issue.getVersion(), expectedVersion));
+        }
+    }
+
+    private Issue saveVersioned(Issue issue) {
+        try {
+            return issueRepository.saveAndFlush(issue);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("Issue [%s] was modified concurrently".formatted(issue.getId()));
+        }
+    }
+
+    private void applyUpdate(Issue issueToUpdate, IssueUpdateRequest issue) {
+        issueToUpdate.setPriority(Priority.fromName(issue.priority()));
+        issueToUpdate.setIssueColumn(IssueColumn.fromName(issue.column()));
         issueToUpdate.setTitle(issue.title());
         issueToUpdate.setDescription(issue.description());
         issueToUpdate.setReporterEmail(issue.reporterEmail());
-        issueRepository.save(issueToUpdate);
     }
 
+    public IssueBulkResult bulkUpdate(IssueBulkRequest request) {
+        List<IssueDTO> creates = request.create() == null ? List.of() : request.create();
+        List<IssueUpdateRequest> updates = request.update() == null ? List.of() : request.update();
+        List<IssueMoveRequest> moves = request.move() == null ? List.of() : request.move();
+        if (creates.size() + updates.size() + moves.size() > MAX_BULK_SIZE) {
+            throw new NotValidResourceException("Bulk request exceeds %d operations".formatted(MAX_BULK_SIZE));
+        }
+        // the whole batch is rejected before the transaction starts
+        validateAll("create", creates, RequestValidators.ISSUE);
+        validateAll("update", updates, RequestValidators.ISSUE_UPDATE);
+        validateAll("move", moves, RequestValidators.ISSUE_MOVE);
+        return transactionTemplate.execute(status -> {
+            List<IssueBulkItemResult> items = new ArrayList<>(creates.size() + updates.size() + moves.size());
+            String rank = creates.isEmpty() ? null : issueRepository.findLastRank(IssueColumn.BACKLOG);
+            List<Issue> newIssues = new ArrayList<>(creates.size());
+            for (IssueDTO dto : creates) {
+                Issue issue = new Issue(dto.title(), IssueColumn.BACKLOG, Priority.MEDIUM, dto.description(), dto.reporterEmail());
+                rank = IssueRank.after(rank);
+                issue.setRank(rank);
+                newIssues.add(issue);
+            }
+            List<Issue> created = issueRepository.saveAll(newIssues);
+            for (int i = 0; i < created.size(); i++) {
+                Issue issue = created.get(i);
+                eventPublisher.publishEvent(IssueChangedEvent.created(IssueDetailsDTO.from(issue)));
+                items.add(IssueBulkItemResult.done(Operation.CREATE, i, issue.getId(), Status.CREATED));
+            }
+            int updated = applyBulkUpdates(updates, items);
+            int moved = applyBulkMoves(moves, items);
+            return new IssueBulkResult(created.size(), updated, moved, items);
+        });
+    }
+
+    private static <T> void validateAll(String operation, List<T> requests, Validator<T> validator) {
+        for (int i = 0; i < requests.size(); i++) {
+            List<ApiError> errors = validator.validate(requests.get(i));
+            if (!errors.isEmpty()) {
+                ApiError error = errors.get(0);
+                String field = error.getField() == null ? "" : "." + error.getField();
+                throw new NotValidResourceException("%s[%d]%s: %s".formatted(operation, i, field, error.getMessage()));
+            }
+        }
+    }
+
+    private int applyBulkUpdates(List<IssueUpdateRequest> updates, List<IssueBulkItemResult> items) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, Issue> issues = issueRepository.findAllById(updates.stream().map(IssueUpdateRequest::id).toList())
+                .stream().collect(Collectors.toMap(Issue::getId, Function.identity()));
+        Map<Integer, User> assignees = userRepository.findAllById(updates.stream()
+                        .map(update -> update.assignee() == null ? null : update.assignee().orElse(null))
+                        .filter(Objects::nonNull)
+                        .map(Integer::parseInt)
+                        .collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Integer, IssueDetailsDTO> previous = new HashMap<>();
+        for (int i = 0; i < updates.size(); i++) {
+            IssueUpdateRequest update = updates.get(i);
+            Issue issue = issues.get(update.id());
+            if (issue == null) {
+                items.add(IssueBulkItemResult.notFound(Operation.UPDATE, i, update.id()));
+                continue;
+            }
+            items.add(IssueBulkItemResult.done(Operation.UPDATE, i, issue.getId(), Status.UPDATED));
+            previous.putIfAbsent(issue.getId(), IssueDetailsDTO.from(issue));
+            if (update.assignee() != null && update.assignee().isPresent()) {
+                issue.setAssignee(assignees.get(Integer.parseInt(update.assignee().get())));
+            }
+            applyUpdate(issue, update);
+        }
+        // flushing so the published events carry the incremented versions
+        issueRepository.saveAllAndFlush(issues.values());
+        previous.forEach((id, before) ->
+                eventPublisher.publishEvent(IssueChangedEvent.updated(before, IssueDetailsDTO.from(issues.get(id)))));
+        return previous.size();
+    }
+
+    private int applyBulkMoves(List<IssueMoveRequest> moves, List<IssueBulkItemResult> items) {
+        if (moves.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, IssueDetailsDTO> previous = issueRepository.findAllById(moves.stream().map(IssueMoveRequest::id).toList())
+                .stream().collect(Collectors.toMap(Issue::getId, IssueDetailsDTO::from));
+        // column names were validated before the transaction
+        Map<IssueColumn, List<Integer>> idsByColumn = new HashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            IssueMoveRequest move = moves.get(i);
+            if (!previous.containsKey(move.id())) {
+                items.add(IssueBulkItemResult.notFound(Operation.MOVE, i, move.id()));
+                continue;
+            }
+            items.add(IssueBulkItemResult.done(Operation.MOVE, i, move.id(), Status.MOVED));
+            idsByColumn.computeIfAbsent(IssueColumn.fromName(move.column()), column -> new ArrayList<>()).add(move.id());
+        }
+        int moved = 0;
+        for (Map.Entry<IssueColumn, List<Integer>> entry : idsByColumn.entrySet()) {
+            moved += issueRepository.moveAll(entry.getValue(), entry.getKey(), Instant.now());
+            for (Integer id : entry.getValue()) {
+                IssueDetailsDTO before = previous.get(id);
+                eventPublisher.publishEvent(IssueChangedEvent.updated(before, before.withColumn(entry.getKey(), before.version() + 1)));
+            }
+        }
+        return moved;
+    }
+
+    // one transaction per batch: existing issues get their occurrences bumped, unseen fingerprints become new issues
+    public void recordCrashReports(Collection<CrashReportIngestor.PendingReport> reports) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Issue> existing = issueRepository.findAllByFingerprintIn(
+                            reports.stream().map(CrashReportIngestor.PendingReport::fingerprint).toList())
+                    .stream().collect(Collectors.toMap(Issue::getFingerprint, Function.identity()));
+            List<Issue> issues = new ArrayList<>(reports.size());
+            List<IssueDetailsDTO> previous = new ArrayList<>(reports.size());
+            String rank = null;
+            boolean rankLoaded = false;
+            for (CrashReportIngestor.PendingReport pending : reports) {
+                Issue issue = existing.get(pending.fingerprint());
+                if (issue != null) {
+                    previous.add(IssueDetailsDTO.from(issue));
+                    issue.setOccurrences(issue.getOccurrences() + pending.count());
+                } else {
+                    if (!rankLoaded) {
+                        rank = issueRepository.findLastRank(IssueColumn.BACKLOG);
+                        rankLoaded = true;
+                    }
+                    rank = IssueRank.after(rank);
+                    issue = new Issue(pending.title(), IssueColumn.BACKLOG, Priority.MEDIUM, pending.description(),
+                            pending.reporterEmail());
+                    issue.setRank(rank);
+                    issue.setFingerprint(pending.fingerprint());
+                    issue.setOccurrences(pending.count());
+                    previous.add(null);
+                }
+                issues.add(issue);
+            }
+            issueRepository.saveAllAndFlush(issues);
+            for (int i = 0; i < issues.size(); i++) {
+                IssueDetailsDTO current = IssueDetailsDTO.from(issues.get(i));
+                eventPublisher.publishEvent(previous.get(i) == null
+                        ? IssueChangedEvent.created(current)
+                        : IssueChangedEvent.updated(previous.get(i), current));
+            }
+        });
+    }
+
+    @Transactional
     public void deleteIssue(String id) {
-        issueRepository.deleteById(Integer.parseInt(id));
+        issueRepository.findById(Integer.parseInt(id)).ifPresent(issue -> {
+            issueRepository.delete(issue);
+            eventPublisher.publishEvent(IssueChangedEvent.deleted(IssueDetailsDTO.from(issue)));
+        });
+    }
+
+    public CacheStats getBoardCacheStats() {
+        return boardCache.getStats();
     }
 }
@@ -0,0 +1,299 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.dtos.IssueDetailsDTO;
+import org.bugReportSystem.events.IssueChangedEvent;
+import org.bugReportSystem.repositories.IssueRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// 64 bit SimHash per issue, split into 4 bands of 16 bits for LSH lookup.
+// Two texts within 3 differing bits always share a band; larger distances are found when a band happens to match.
+@Component
+public class IssueSimilarityIndex {
+    public static final int BANDS = 4;
+    public static final int BAND_BITS = 16;
+    public static final int BUILD_BATCH_SIZE = 5000;
+    public static final int MAX_BUCKET_SCAN = 4096;
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MIN_TOKEN_LENGTH = 3;
+    private static final Set<String> STOP_WORDS = Set.of("the", "and", "for", "with", "not", "does", "doesn", "when",
+            "this", "that", "from", "are", "was", "were", "has", "have", "but", "into", "after", "before", "there");
+    private static final String[] SUFFIXES = {"ing", "ed", "es", "s"};
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private final IssueRepository issueRepository;
+    private final int maxDistance;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // indexed by issue id, ids come from a sequence so the arrays stay dense
+    private long[] hashes = new long[1024];
+    private final BitSet present = new BitSet();
+    private final int[][][] buckets = new int[BANDS][1 << BAND_BITS][];
+    private final int[][] bucketSizes = new int[BANDS][1 << BAND_BITS];
+
+    public IssueSimilarityIndex(IssueRepository issueRepository,
+                                @Value("${issues.duplicates.max-distance:10}") int maxDistance) {
+        this.issueRepository = issueRepository;
+        this.maxDistance = maxDistance;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        int afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = issueRepository.findTextsAfter(afterId, Limit.of(BUILD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : rows) {
+                    int id = (Integer) row[0];
+                    // a change event that arrived during the build is newer than this row
+                    if (!present.get(id)) {
+                        put(id, simHash((String) row[1], (String) row[2]));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!rows.isEmpty()) {
+                afterId = (Integer) rows.get(rows.size() - 1)[0];
+            }
+        } while (rows.size() == BUILD_BATCH_SIZE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        IssueDetailsDTO previous = event.previous();
+        IssueDetailsDTO current = event.current();
+        if (previous != null && current != null && Objects.equals(previous.title(), current.title())
+                && Objects.equals(previous.description(), current.description())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(event.issueId());
+            if (current != null) {
+                put(current.id(), simHash(current.title(), current.description()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // a change made on another node, only its id is known here
+    public void refresh(int issueId) {
+        List<Object[]> rows = issueRepository.findText(issueId);
+        lock.writeLock().lock();
+        try {
+            remove(issueId);
+            for (Object[] row : rows) {
+                put(issueId, simHash((String) row[1], (String) row[2]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Match[] findSimilar(int issueId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (!present.get(issueId)) {
+                return new Match[0];
+            }
+            return find(hashes[issueId], issueId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Match[] findSimilar(String title, String description, int limit) {
+        long hash = simHash(title, description);
+        lock.readLock().lock();
+        try {
+            return find(hash, -1, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Match[] find(long hash, int excludeId, int limit) {
+        if (hash == 0) {
+            return new Match[0];
+        }
+        int[] candidates = new int[0];
+        int count = 0;
+        for (int band = 0; band < BANDS; band++) {
+            int key = bandKey(hash, band);
+            int size = Math.min(bucketSizes[band][key], MAX_BUCKET_SCAN);
+            if (size == 0) {
+                continue;
+            }
+            if (count + size > candidates.length) {
+                candidates = Arrays.copyOf(candidates, count + size);
+            }
+            System.arraycopy(buckets[band][key], 0, candidates, count, size);
+            count += size;
+        }
+        Arrays.sort(candidates, 0, count);
+        long[] matches = new long[count];
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            int id = candidates[i];
+            if (id == excludeId || (i > 0 && candidates[i - 1] == id)) {
+                continue;
+            }
+            int distance = Long.bitCount(hash ^ hashes[id]);
+            if (distance <= maxDistance) {
+                // distance in the high bits so a plain sort orders by distance, then id
+                matches[found++] = (long) distance << 32 | id;
+            }
+        }
+        Arrays.sort(matches, 0, found);
+        Match[] result = new Match[Math.min(found, limit)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new Match((int) matches[i], (int) (matches[i] >>> 32));
+        }
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return present.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(int id, long hash) {
+        if (hash == 0) {
+            return;
+        }
+        if (id >= hashes.length) {
+            hashes = Arrays.copyOf(hashes, Math.max(id + 1, hashes.length + (hashes.length >> 1)));
+        }
+        hashes[id] = hash;
+        present.set(id);
+        for (int band = 0; band < BANDS; band++) {
+            int key = bandKey(hash, band);
+            int[] bucket = buckets[band][key];
+            int size = bucketSizes[band][key];
+            if (bucket == null) {
+                bucket = buckets[band][key] = new int[4];
+            } else if (size == bucket.length) {
+                bucket = buckets[band][key] = Arrays.copyOf(bucket, size << 1);
+            }
+            bucket[size] = id;
+            bucketSizes[band][key] = size + 1;
+        }
+    }
+
+    private void remove(int id) {
+        if (!present.get(id)) {
+            return;
+        }
+        long hash = hashes[id];
+        present.clear(id);
+        hashes[id] = 0;
+        for (int band = 0; band < BANDS; band++) {
+            int key = bandKey(hash, band);
+            int[] bucket = buckets[band][key];
+            int size = bucketSizes[band][key];
+            for (int i = 0; i < size; i++) {
+                if (bucket[i] == id) {
+                    bucket[i] = bucket[size - 1];
+                    bucketSizes[band][key] = size - 1;
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int bandKey(long hash, int band) {
+        return (int) (hash >>> (band * BAND_BITS)) & ((1 << BAND_BITS) - 1);
+    }
+
+    // words of three or more letters, title words weigh double
+    public static long simHash(String title, String description) {
+        int[] weights = new int[Long.SIZE];
+        boolean empty = addFeatures(weights, title, TITLE_WEIGHT);
+        empty &= addFeatures(weights, description, 1);
+        if (empty) {
+            return 0;
+        }
+        long hash = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (weights[bit] > 0) {
+                hash |= 1L << bit;
+            }
+        }
+        return hash;
+    }
+
+    private static boolean addFeatures(int[] weights, String text, int weight) {
+        if (text == null) {
+            return true;
+        }
+        boolean empty = true;
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase())) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (token.length() < MIN_TOKEN_LENGTH || STOP_WORDS.contains(token)) {
+                continue;
+            }
+            addFeature(weights, hash(stem(token)), weight);
+            empty = false;
+        }
+        return empty;
+    }
+
+    private static void addFeature(int[] weights, long hash, int weight) {
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            weights[bit] += ((hash >>> bit) & 1) == 1 ? weight : -weight;
+        }
+    }
+
+    // FNV-1a followed by the murmur3 finalizer so every input bit reaches every output bit
+    private static long hash(String token) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // crude suffix stripping so "crashes", "crashed" and "crashing" count as the same word
+    private static String stem(String token) {
+        for (String suffix : SUFFIXES) {
+            if (token.length() > suffix.length() + 2 && token.endsWith(suffix)) {
+                return token.substring(0, token.length() - suffix.length());
+            }
+        }
+        return token;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public record Match(int issueId, int distance) {
+    }
+}
@@ -0,0 +1,136 @@
+package org.bugReportSystem.services;
+
+import jakarta.annotation.PreDestroy;
+import org.bugReportSystem.dtos.PasswordHashingStats;
+import org.bugReportSystem.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// BCrypt is deliberately slow, a login burst must not take every request thread's CPU with it
+@Component
+public class PasswordHasher {
+    private final int cost;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder rehashes = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder verifyNanos = new LongAdder();
+
+    public PasswordHasher(@Value("${auth.password.bcrypt-cost:12}") int cost,
+                          @Value("${auth.password.threads:0}") int threads,
+                          @Value("${auth.password.queue-size:64}") int queueSize,
+                          @Value("${auth.password.timeout-ms:5000}") long timeoutMillis) {
+        this.cost = cost;
+        this.timeoutMillis = timeoutMillis;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public String hash(String password) {
+        return run(() -> BCrypt.hashpw(password, BCrypt.gensalt(cost)), hashes, hashNanos);
+    }
+
+    // on the calling thread, for callers that bound their own concurrency such as the bulk import
+    String hashOnCurrentThread(String password) {
+        long start = System.nanoTime();
+        try {
+            return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+        } finally {
+            hashNanos.add(System.nanoTime() - start);
+            hashes.increment();
+        }
+    }
+
+    public boolean matches(String password, String hash) {
+        return run(() -> BCrypt.checkpw(password, hash), verifications, verifyNanos);
+    }
+
+    // stored with a different cost factor than the configured one
+    public boolean needsRehash(String hash) {
+        // $2a$12$...
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6)) != cost;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public void countRehash() {
+        rehashes.increment();
+    }
+
+    public PasswordHashingStats getStats() {
+        long hashCount = hashes.sum();
+        long verifyCount = verifications.sum();
+        return new PasswordHashingStats(executor.getQueue().size(), executor.getActiveCount(), hashCount,
+                verifyCount, rehashes.sum(), rejected.sum(), averageMillis(hashNanos.sum(), hashCount),
+                averageMillis(verifyNanos.sum(), verifyCount));
+    }
+
+    private <T> T run(Callable<T> task, LongAdder count, LongAdder nanos) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    nanos.add(System.nanoTime() - start);
+                    count.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many password operations in progress, retry shortly");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many password operations in progress, retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password operation interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static double averageMillis(long nanos, long count) {
+        return count == 0 ? 0 : nanos / 1_000_000.0 / count;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
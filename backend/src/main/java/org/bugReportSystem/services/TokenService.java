@@ -6,69 +6,127 @@ import org.bugReportSystem.entities.User;
 import org.bugReportSystem.exception.ApiError;
 import org.bugReportSystem.exception.NotValidResourceException;
 import org.bugReportSystem.exception.ResourceNotFoundException;
+import org.bugReportSystem.exception.ServiceUnavailableException;
+import org.bugReportSystem.security.AuthenticatedUser;
+import org.bugReportSystem.security.TokenRevocationList;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.servlet.http.Cookie;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
 
 @Service
 public class TokenService {
     public static final long EXPIRATION_TIME_ACCESS = 900000;
     public static final long EXPIRATION_TIME_REFRESH = 3600000 * 24;
+    public static final String TOKEN_TYPE_CLAIM = "typ";
+    public static final String ACCESS_TOKEN_TYPE = "access";
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
     private static Key jwtKey;
+    // immutable and thread-safe, building one per call repeats the key setup
+    private static JwtParser jwtParser;
+    private static final int PURGE_BATCH_SIZE = 500;
     private final TokenDAO tokenDAO;
+    private final int maxTokensPerUser;
+    private final PasswordHasher passwordHasher;
+    private final TokenRevocationList tokenRevocations;
 
     @Autowired
-    public TokenService(TokenDAO tokenDAO, @Value("${jwt.Key}") String secretKey) {
+    public TokenService(TokenDAO tokenDAO, @Value("${jwt.Key}") String secretKey,
+                        @Value("${auth.refresh-tokens.max-per-user:10}") int maxTokensPerUser,
+                        PasswordHasher passwordHasher, TokenRevocationList tokenRevocations) {
         this.tokenDAO = tokenDAO;
+        this.passwordHasher = passwordHasher;
+        this.tokenRevocations = tokenRevocations;
+        this.maxTokensPerUser = maxTokensPerUser;
         jwtKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        jwtParser = Jwts.parserBuilder().setSigningKey(jwtKey).build();
     }
 
     public static String generateToken(long expirationDate, Integer userID) {
+        return generateToken(expirationDate, userID, ACCESS_TOKEN_TYPE);
+    }
+
+    // the only tokens refreshToken accepts, they are stored when handed out
+    public static String generateRefreshToken(Integer userID) {
+        return generateToken(EXPIRATION_TIME_REFRESH, userID, REFRESH_TOKEN_TYPE);
+    }
+
+    private static String generateToken(long expirationDate, Integer userID, String type) {
         long currentTimeMillis = System.currentTimeMillis();
         Date expirationDateToken = new Date(currentTimeMillis + expirationDate);
         return Jwts.builder()
                 .setSubject(String.valueOf(userID))
+                .claim(TOKEN_TYPE_CLAIM, type)
+                .setIssuedAt(new Date(currentTimeMillis))
                 .setExpiration(expirationDateToken)
                 .signWith(jwtKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    @Transactional
     public void addToken(Integer userId, String tokenString) {
         if (tokenString == null) {
             throw new NotValidResourceException("Missing data");
         }
-        Token token = new Token(userId, tokenString);
-        tokenDAO.addToken(token);
+        Date expiration = jwtParser.parseClaimsJws(tokenString).getBody().getExpiration();
+        Token token = new Token(userId, digest(tokenString), expiration.toInstant());
+        tokenDAO.addToken(token, maxTokensPerUser)
+                .forEach(dropped -> tokenRevocations.revokeToken(dropped.getDigest(), dropped.getExpiresAt()));
     }
 
     public Token getTokenByContent(String token) {
-        return tokenDAO.getTokenByContent(token)
+        return tokenDAO.getTokenByDigest(digest(token))
                 .orElseThrow(() ->
-                        new ResourceNotFoundException("Token [%s] not found".formatted(token))
+                        new ResourceNotFoundException("Refresh token not found")
                 );
     }
 
+    // fixed width key for the unique index, a leaked table does not hand out valid refresh tokens
+    static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.refresh-tokens.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        while (tokenDAO.deleteExpired(now, PURGE_BATCH_SIZE) == PURGE_BATCH_SIZE) {
+            // keep deleting in small transactions
+        }
+    }
+
     public ResponseEntity<?> loginUser(String email, String password, UserService userService) {
         try {
             User user = userService.getUserByEmail(email);
             // checking password
-            if (BCrypt.checkpw(password, user.getPassword())) {
+            if (passwordHasher.matches(password, user.getPassword())) {
+                rehashIfNeeded(user, password, userService);
                 // generating tokens
                 String accessToken = generateToken(EXPIRATION_TIME_ACCESS, user.getId());
-                String refreshToken = generateToken(EXPIRATION_TIME_REFRESH, user.getId());
+                String refreshToken = generateRefreshToken(user.getId());
                 // adding refresh token to database
                 addToken(user.getId(), refreshToken);
                 // adding refresh token to cookies
@@ -76,9 +134,10 @@ public class TokenService {
                 cookie.setHttpOnly(true);
                 cookie.setPath("/api/auth");
                 String cookieValue = String.format("%s=%s; HttpOnly; Path=/", cookie.getName(), cookie.getValue());
+                // the refresh token stays in the cookie, only the access token works as a bearer
                 return ResponseEntity.ok()
                         .header("Set-Cookie", cookieValue)
-                        .body(refreshToken);
+                        .body(accessToken);
             } else {
                 ApiError error = new ApiError("Validation", "Password", "Invalid password");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
@@ -89,23 +148,48 @@ public class TokenService {
         }
     }
 
+    // the plain password is only available here, so a changed cost factor is applied on the next login
+    private void rehashIfNeeded(User user, String password, UserService userService) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            userService.updatePasswordHash(user, passwordHasher.hash(password));
+            passwordHasher.countRehash();
+        } catch (ServiceUnavailableException e) {
+            // retried on a later login
+        }
+    }
+
     public ResponseEntity<?> refreshToken(String refreshToken) {
         if (!refreshToken.isEmpty()) {
             try {
-                Claims claims = Jwts.parser().setSigningKey(jwtKey).parseClaimsJws(refreshToken).getBody();
+                Claims claims = jwtParser.parseClaimsJws(refreshToken).getBody();
+                // tokens from before the type claim have none, they are only trusted while still stored
+                String type = claims.get(TOKEN_TYPE_CLAIM, String.class);
+                if (type != null && !type.equals(REFRESH_TOKEN_TYPE)) {
+                    ApiError error = new ApiError("Refresh", null, "Invalid token");
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+                }
                 // getting userID from refresh token
                 long userID = Long.parseLong(claims.getSubject());
-                // getting refresh token from database
-                Token dataBaseRefreshToken = getTokenByContent(refreshToken);
-                // checking refresh token
-                if (dataBaseRefreshToken.getContent().equals(refreshToken) && dataBaseRefreshToken.getUserID().equals((int) userID)) {
-                    // Creating new access token
-                    String accessToken = generateToken(EXPIRATION_TIME_ACCESS, (int) userID);
-                    return ResponseEntity.ok().body(accessToken);
-                } else {
+                String digest = digest(refreshToken);
+                Date issuedAt = claims.getIssuedAt();
+                TokenRevocationList.Status status = tokenRevocations.check(digest, (int) userID,
+                        issuedAt == null ? null : issuedAt.toInstant());
+                if (status == TokenRevocationList.Status.REVOKED) {
+                    throw new ResourceNotFoundException("Refresh token revoked");
+                }
+                // the database is only asked when the revocation list cannot tell, every removal of a stored
+                // refresh token revokes it
+                if ((status == TokenRevocationList.Status.UNKNOWN || type == null)
+                        && !getTokenByContent(refreshToken).getUserID().equals((int) userID)) {
                     ApiError error = new ApiError("Refresh", null, "Invalid token");
                     return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
                 }
+                // Creating new access token
+                String accessToken = generateToken(EXPIRATION_TIME_ACCESS, (int) userID);
+                return ResponseEntity.ok().body(accessToken);
             } catch (ExpiredJwtException e) {
                 // token unnactive
                 ApiError error = new ApiError("Refresh", null, "Expired token");
@@ -122,9 +206,19 @@ public class TokenService {
         }
     }
 
+    // verifies signature, expiry and type, throws ExpiredJwtException or another JwtException; refresh tokens are
+    // only revoked on /refresh, so they must not work as bearer tokens (tokens from before the type claim have none)
+    public AuthenticatedUser parseAccessToken(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        if (REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class))) {
+            throw new UnsupportedJwtException("Refresh token used as access token");
+        }
+        return new AuthenticatedUser(Integer.parseInt(claims.getSubject()), claims.getExpiration().toInstant());
+    }
+
     public boolean validateAccessToken(String token) {
         try {
-            Jwts.parser().setSigningKey(jwtKey).parseClaimsJws(token).getBody();
+            jwtParser.parseClaimsJws(token);
             return true;
         } catch (ExpiredJwtException e) {
             return false;
@@ -132,26 +226,34 @@ public class TokenService {
     }
 
     public Integer getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(jwtKey)
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
         return Integer.parseInt(claims.getSubject());
     }
 
     @Transactional
     public void deleteToken(String tokenContent) {
-        tokenDAO.deleteByContent(tokenContent);
+        String digest = digest(tokenContent);
+        tokenDAO.deleteByDigest(digest);
+        Instant expiresAt;
+        try {
+            expiresAt = jwtParser.parseClaimsJws(tokenContent).getBody().getExpiration().toInstant();
+        } catch (ExpiredJwtException e) {
+            // rejected by its expiry already
+            return;
+        }
+        tokenRevocations.revokeToken(digest, expiresAt);
     }
 
     @Transactional
     public void deleteAllTokens(Integer userID) {
         tokenDAO.deleteAllTokens(userID);
+        Instant now = Instant.now();
+        tokenRevocations.revokeUser(userID, now, now.plusMillis(EXPIRATION_TIME_REFRESH));
     }
 
     public boolean isTokenExpired(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(jwtKey).build().parseClaimsJws(token);
+            jwtParser.parseClaimsJws(token);
             return false;
         } catch (ExpiredJwtException e) {
             // Token is expired
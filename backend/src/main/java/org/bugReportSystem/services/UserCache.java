@@ -0,0 +1,165 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.dtos.CacheStats;
+import org.bugReportSystem.entities.User;
+import org.bugReportSystem.events.PgNotificationListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Immutable user snapshots by id and e-mail, every lookup hands out a fresh entity so callers may modify it.
+// Other nodes evict through NOTIFY; while that connection is down nothing is served from the cache.
+@Component
+public class UserCache {
+    public static final String CHANNEL = "user_cache";
+    private final PgNotificationListener notifications;
+    private final int maxEntries;
+    private final long ttlNanos;
+    // access ordered, the eldest entry is the least recently used
+    private final LinkedHashMap<Integer, Snapshot> users = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> idsByEmail = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // bumped on every invalidation so a load that raced with a write is never stored
+    private long generation;
+
+    public UserCache(PgNotificationListener notifications,
+                     @Value("${users.cache.max-entries:10000}") int maxEntries,
+                     @Value("${users.cache.ttl-ms:300000}") long ttlMillis) {
+        this.notifications = notifications;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        notifications.subscribe(CHANNEL, payload -> evict(Integer.valueOf(payload)), this::clear);
+    }
+
+    public Optional<User> getById(Integer id, Supplier<Optional<User>> loader) {
+        Snapshot snapshot;
+        synchronized (this) {
+            snapshot = fresh(users.get(id));
+        }
+        return snapshot != null ? hit(snapshot) : load(loader);
+    }
+
+    public Optional<User> getByEmail(String email, Supplier<Optional<User>> loader) {
+        Snapshot snapshot = null;
+        synchronized (this) {
+            Integer id = idsByEmail.get(email);
+            if (id != null) {
+                snapshot = fresh(users.get(id));
+            }
+        }
+        return snapshot != null ? hit(snapshot) : load(loader);
+    }
+
+    // call after the user was saved or deleted, again after commit when inside a transaction
+    public void invalidate(User user) {
+        evict(user.getId(), user.getEmail());
+        notifications.publish(CHANNEL, String.valueOf(user.getId()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(user.getId(), user.getEmail());
+                }
+            });
+        }
+    }
+
+    public synchronized CacheStats getStats() {
+        return CacheStats.of(hits.sum(), misses.sum(), evictions.sum(), users.size());
+    }
+
+    private Optional<User> hit(Snapshot snapshot) {
+        hits.increment();
+        return Optional.of(snapshot.toUser());
+    }
+
+    private Optional<User> load(Supplier<Optional<User>> loader) {
+        misses.increment();
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        Optional<User> user = loader.get();
+        if (user.isPresent() && notifications.isConnected()) {
+            put(Snapshot.of(user.get()), loadGeneration);
+        }
+        return user;
+    }
+
+    private synchronized void put(Snapshot snapshot, long loadGeneration) {
+        if (generation != loadGeneration) {
+            return;
+        }
+        Snapshot previous = users.put(snapshot.id, snapshot);
+        if (previous != null && !previous.email.equals(snapshot.email)) {
+            idsByEmail.remove(previous.email);
+        }
+        idsByEmail.put(snapshot.email, snapshot.id);
+        Iterator<Snapshot> eldest = users.values().iterator();
+        while (users.size() > maxEntries) {
+            idsByEmail.remove(eldest.next().email);
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private Snapshot fresh(Snapshot snapshot) {
+        if (snapshot == null || !notifications.isConnected()) {
+            return null;
+        }
+        if (System.nanoTime() - snapshot.loadedAt > ttlNanos) {
+            users.remove(snapshot.id);
+            idsByEmail.remove(snapshot.email);
+            return null;
+        }
+        return snapshot;
+    }
+
+    private synchronized void evict(Integer id) {
+        evict(id, null);
+    }
+
+    private synchronized void evict(Integer id, String email) {
+        generation++;
+        Snapshot removed = users.remove(id);
+        if (removed != null) {
+            idsByEmail.remove(removed.email);
+        }
+        if (email != null) {
+            idsByEmail.remove(email);
+        }
+    }
+
+    private synchronized void clear() {
+        generation++;
+        users.clear();
+        idsByEmail.clear();
+    }
+
+    private record Snapshot(Integer id, String firstname, String lastname, String email, String password,
+                            boolean active, long loadedAt) {
+        static Snapshot of(User user) {
+            return new Snapshot(user.getId(), user.getFirstname(), user.getLastname(), user.getEmail(),
+                    user.getPassword(), user.isActive(), System.nanoTime());
+        }
+
+        User toUser() {
+            User user = new User(firstname, lastname, email, password);
+            user.setId(id);
+            user.setActive(active);
+            return user;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package org.bugReportSystem.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.bugReportSystem.dtos.UserImportError;
+import org.bugReportSystem.dtos.UserImportResult;
+import org.bugReportSystem.exception.ApiError;
+import org.bugReportSystem.requests.UserRegistrationRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Streams a CSV or NDJSON upload row by row. Every batch is hashed in parallel and inserted as one JDBC batch,
+// a row that fails validation or hits an existing e-mail is reported and the import goes on.
+@Service
+public class UserImportService {
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> CSV_COLUMNS = List.of("firstname", "lastname", "email", "password");
+    private static final String INSERT = """
+            insert into users (first_name, last_name, email, password, is_active)
+            values (?, ?, ?, ?, false)
+            on conflict on constraint %s do nothing
+            """.formatted(UserService.EMAIL_UNIQUE_CONSTRAINT);
+    private final UserService userService;
+    private final UserSearchIndex userSearchIndex;
+    private final PasswordHasher passwordHasher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final ThreadPoolExecutor hashingPool;
+
+    public UserImportService(UserService userService, UserSearchIndex userSearchIndex, PasswordHasher passwordHasher,
+                             JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                             @Value("${users.import.batch-size:100}") int batchSize,
+                             @Value("${users.import.hash-threads:0}") int hashThreads) {
+        this.userService = userService;
+        this.userSearchIndex = userSearchIndex;
+        this.passwordHasher = passwordHasher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        // half of the cores by default so logins keep running on the PasswordHasher pool during an import
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        // a full queue makes the importing request thread hash as well instead of queueing without bound
+        this.hashingPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchSize), runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hasher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public ResponseEntity<?> importUsers(HttpServletRequest request) throws IOException {
+        ResponseEntity<?> checkAuthorizationResult = userService.checkAuthorization(request);
+        if (checkAuthorizationResult.getStatusCode() != HttpStatus.OK) {
+            return checkAuthorizationResult;
+        }
+        boolean csv = request.getContentType() != null && request.getContentType().startsWith(CSV);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        Progress progress = new Progress();
+        long lineNumber = 0;
+        int[] columns = null;
+        if (csv) {
+            lineNumber++;
+            columns = csvColumns(reader.readLine());
+            if (columns == null) {
+                ApiError error = new ApiError("Validation", null, "CSV header needs columns " + String.join(",", CSV_COLUMNS));
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+        }
+        List<Row> batch = new ArrayList<>(batchSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            UserRegistrationRequest user = csv ? fromCsv(line, columns) : fromJson(line);
+            if (user == null) {
+                progress.fail(lineNumber, null, null, "Malformed row");
+                continue;
+            }
+            List<ApiError> errors = userService.validateRegistration(user);
+            if (!errors.isEmpty()) {
+                ApiError error = errors.get(0);
+                progress.fail(lineNumber, user.email(), error.getField(), error.getMessage());
+                continue;
+            }
+            batch.add(new Row(lineNumber, user));
+            if (batch.size() == batchSize) {
+                insert(batch, progress);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(batch, progress);
+        }
+        return ResponseEntity.ok(progress.result());
+    }
+
+    private void insert(List<Row> batch, Progress progress) {
+        List<Future<String>> hashes = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            hashes.add(hashingPool.submit(() -> passwordHasher.hashOnCurrentThread(row.user.password())));
+        }
+        List<Row> rows = new ArrayList<>(batch.size());
+        List<Object[]> arguments = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Row row = batch.get(i);
+            try {
+                String hash = hashes.get(i).get();
+                rows.add(row);
+                arguments.add(new Object[]{row.user.firstname(), row.user.lastname(), row.user.email(), hash});
+            } catch (ExecutionException e) {
+                progress.fail(row.line, row.user.email(), "password", "Password could not be hashed");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("User import interrupted", e);
+            }
+        }
+        int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(INSERT, arguments));
+        List<String> inserted = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            if (counts[i] == 0) {
+                // the e-mail exists already, or appeared earlier in the same upload
+                progress.fail(rows.get(i).line, rows.get(i).user.email(), "email", "Email already exists");
+            } else {
+                progress.imported++;
+                inserted.add(rows.get(i).user.email());
+            }
+        }
+        userSearchIndex.refresh(inserted);
+    }
+
+    private static int[] csvColumns(String header) {
+        if (header == null) {
+            return null;
+        }
+        List<String> names = parseCsvLine(header.replace("\uFEFF", ""));
+        if (names == null) {
+            return null;
+        }
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < names.size(); j++) {
+                if (names.get(j).trim().toLowerCase(Locale.ROOT).equals(CSV_COLUMNS.get(i))) {
+                    columns[i] = j;
+                }
+            }
+            if (columns[i] < 0) {
+                return null;
+            }
+        }
+        return columns;
+    }
+
+    private static UserRegistrationRequest fromCsv(String line, int[] columns) {
+        List<String> values = parseCsvLine(line);
+        if (values == null) {
+            return null;
+        }
+        for (int column : columns) {
+            if (column >= values.size()) {
+                return null;
+            }
+        }
+        return new UserRegistrationRequest(values.get(columns[0]), values.get(columns[1]), values.get(columns[2]),
+                values.get(columns[3]));
+    }
+
+    private UserRegistrationRequest fromJson(String line) {
+        try {
+            return objectMapper.readValue(line, UserRegistrationRequest.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    // RFC 4180 fields on one line, null when a quoted field is not closed
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    private record Row(long line, UserRegistrationRequest user) {
+    }
+
+    private static final class Progress {
+        private final List<UserImportError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        void fail(long line, String email, String field, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new UserImportError(line, email, field, message));
+            }
+        }
+
+        UserImportResult result() {
+            return new UserImportResult(imported, failed, errors);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.dtos.UserSearchResult;
+import org.bugReportSystem.entities.User;
+import org.bugReportSystem.events.PgNotificationListener;
+import org.bugReportSystem.repositories.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+// Typeahead over first name, last name and e-mail. Every term of a user is a key of one sorted map, so a prefix
+// is a range scan. Writes are applied locally after commit and reach other nodes as a list of ids to reload.
+@Component
+public class UserSearchIndex {
+    public static final String CHANNEL = "user_search";
+    public static final int MAX_RESULTS = 20;
+    public static final int BUILD_BATCH_SIZE = 5000;
+    // pg_notify payloads are limited to 8000 bytes
+    public static final int NOTIFY_BATCH_SIZE = 500;
+    // keys looked at per query, only reached when the other query terms filter out most of the range
+    private static final int MAX_SCAN = 10000;
+    private static final char SEPARATOR = '\0';
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private final UserRepository userRepository;
+    private final PgNotificationListener notifications;
+    // replaced as a whole by a resync
+    private volatile Index index = new Index();
+    // the startup build and a resync of the listener never read the table at the same time
+    private final Object buildLock = new Object();
+
+    public UserSearchIndex(UserRepository userRepository, PgNotificationListener notifications) {
+        this.userRepository = userRepository;
+        this.notifications = notifications;
+        notifications.subscribe(CHANNEL, this::apply, this::resync);
+    }
+
+    // every query term has to be a prefix of one of the user's terms
+    public List<UserSearchResult> search(String query, Integer limit) {
+        String[] tokens = query == null ? new String[0] : WHITESPACE.split(normalize(query.strip()));
+        if (tokens.length == 0 || tokens[0].isEmpty()) {
+            return List.of();
+        }
+        int resultLimit = limit == null ? MAX_RESULTS : Math.max(1, Math.min(limit, MAX_RESULTS));
+        // the longest term gives the narrowest range, the others only filter it
+        int driver = 0;
+        for (int i = 1; i < tokens.length; i++) {
+            if (tokens[i].length() > tokens[driver].length()) {
+                driver = i;
+            }
+        }
+        String prefix = tokens[driver];
+        List<UserSearchResult> results = new ArrayList<>(resultLimit);
+        Set<Integer> seen = new HashSet<>();
+        int scanned = 0;
+        for (Entry entry : index.terms.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            if (++scanned > MAX_SCAN) {
+                break;
+            }
+            if (matchesAll(entry, tokens, driver) && seen.add(entry.user.id())) {
+                results.add(entry.user);
+                if (results.size() == resultLimit) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return index.users.size();
+    }
+
+    // both have to be called after the user is saved, inside its transaction if there is one
+    public void update(User user) {
+        UserSearchResult entry = new UserSearchResult(user.getId(), user.getFirstname(), user.getLastname(), user.getEmail());
+        publish(List.of(user.getId()), () -> put(entry));
+    }
+
+    public void remove(User user) {
+        publish(List.of(user.getId()), () -> delete(user.getId()));
+    }
+
+    // users inserted without an entity, e.g. by the bulk import
+    public void refresh(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        List<UserSearchResult> entries = userRepository.findSearchEntriesByEmail(emails);
+        publish(entries.stream().map(UserSearchResult::id).toList(), () -> entries.forEach(this::put));
+    }
+
+    private void publish(List<Integer> ids, Runnable apply) {
+        for (int from = 0; from < ids.size(); from += NOTIFY_BATCH_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + NOTIFY_BATCH_SIZE));
+            notifications.publish(CHANNEL, String.join(",", chunk.stream().map(String::valueOf).toList()));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    // a notification only carries ids, the current rows are read back so the order of notifications does not matter
+    private void apply(String payload) {
+        Set<Integer> ids = new HashSet<>();
+        for (String id : payload.split(",")) {
+            ids.add(Integer.valueOf(id));
+        }
+        List<UserSearchResult> entries = userRepository.findSearchEntries(ids);
+        entries.forEach(entry -> {
+            ids.remove(entry.id());
+            put(entry);
+        });
+        ids.forEach(this::delete);
+    }
+
+    // the listener only resyncs once it connects, which may take a while or never happen, e.g. on H2
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!notifications.isConnected()) {
+            resync();
+        }
+    }
+
+    // runs on every (re)connect of the listener, after LISTEN so nothing committed meanwhile is missed
+    private void resync() {
+        synchronized (buildLock) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        Index rebuilt = new Index();
+        int afterId = 0;
+        List<UserSearchResult> rows;
+        do {
+            rows = userRepository.findSearchEntriesAfter(afterId, Limit.of(BUILD_BATCH_SIZE));
+            rows.forEach(rebuilt::put);
+            if (!rows.isEmpty()) {
+                afterId = rows.get(rows.size() - 1).id();
+            }
+        } while (rows.size() == BUILD_BATCH_SIZE);
+        // local writes made during the build are read back again when their own notification arrives
+        synchronized (this) {
+            index = rebuilt;
+        }
+    }
+
+    private synchronized void put(UserSearchResult user) {
+        index.put(user);
+    }
+
+    private synchronized void delete(Integer id) {
+        index.remove(id);
+    }
+
+    private static boolean matchesAll(Entry entry, String[] tokens, int driver) {
+        for (int i = 0; i < tokens.length; i++) {
+            if (i != driver && !matches(entry, tokens[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(Entry entry, String token) {
+        for (String term : entry.terms) {
+            if (term.startsWith(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // "Łukasz Nowak-Kowalski" -> lukasz, nowak-kowalski, nowak, kowalski
+    static String[] terms(UserSearchResult user) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String name : new String[]{user.firstname(), user.lastname()}) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            String normalized = normalize(name.strip());
+            terms.add(normalized);
+            for (String word : WORD_SEPARATOR.split(normalized)) {
+                if (!word.isEmpty()) {
+                    terms.add(word);
+                }
+            }
+        }
+        if (user.email() != null) {
+            terms.add(normalize(user.email()));
+        }
+        return terms.toArray(new String[0]);
+    }
+
+    // lower case without diacritics, ł has no decomposition so it is mapped by hand
+    static String normalize(String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 0x7f) {
+                String decomposed = Normalizer.normalize(lower.replace('ł', 'l'), Normalizer.Form.NFD);
+                return MARKS.matcher(decomposed).replaceAll("");
+            }
+        }
+        return lower;
+    }
+
+    private record Entry(UserSearchResult user, String[] terms) {
+    }
+
+    private static final class Index {
+        // term + '\0' + id, so equal terms of different users are separate keys
+        private final NavigableMap<String, Entry> terms = new ConcurrentSkipListMap<>();
+        private final Map<Integer, Entry> users = new ConcurrentHashMap<>();
+
+        private void put(UserSearchResult user) {
+            remove(user.id());
+            Entry entry = new Entry(user, UserSearchIndex.terms(user));
+            users.put(user.id(), entry);
+            for (String term : entry.terms) {
+                terms.put(term + SEPARATOR + user.id(), entry);
+            }
+        }
+
+        private void remove(Integer id) {
+            Entry entry = users.remove(id);
+            if (entry != null) {
+                for (String term : entry.terms) {
+                    terms.remove(term + SEPARATOR + id);
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.bugReportSystem.services;
 
 import org.bugReportSystem.daos.UserDAO;
+import org.bugReportSystem.dtos.CacheStats;
 import org.bugReportSystem.dtos.UserDTO;
 import org.bugReportSystem.email.MailService;
 import org.bugReportSystem.entities.User;
@@ -11,14 +12,18 @@ import org.bugReportSystem.repositories.UserRepository;
 import org.bugReportSystem.requests.ChangePasswordRequest;
 import org.bugReportSystem.requests.UserRegistrationRequest;
 import org.bugReportSystem.requests.UserUpdateRequest;
+import org.bugReportSystem.security.AuthenticatedUser;
+import org.bugReportSystem.security.JwtAuthenticator;
+import org.bugReportSystem.validation.RequestValidators;
 import jakarta.servlet.http.HttpServletRequest;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.regions.Region;
@@ -26,13 +31,13 @@ import software.amazon.awssdk.regions.Region;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.function.Consumer;
-import java.util.regex.Pattern;
 
 import static org.bugReportSystem.services.TokenService.EXPIRATION_TIME_REFRESH;
 import static org.bugReportSystem.services.TokenService.generateToken;
 
 @Service
 public class UserService {
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "user_email_unique";
     private final UserDAO userDAO;
 
     @Autowired
@@ -45,6 +50,16 @@ public class UserService {
     MailService mailService;
     @Autowired
     TokenService tokenService;
+    @Autowired
+    JwtAuthenticator jwtAuthenticator;
+    @Autowired
+    PasswordHasher passwordHasher;
+    @Autowired
+    UserCache userCache;
+    @Autowired
+    UserSearchIndex userSearchIndex;
+    @Autowired
+    IssueBoardCache issueBoardCache;
 
     @Value("${aws.s3.access-key-id}")
     private String S3accessKeyId;
@@ -71,110 +86,66 @@ public class UserService {
     }
 
     public User getUserById(Integer id) {
-        return userDAO.getUserById(id)
+        return userCache.getById(id, () -> userDAO.getUserById(id))
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Customer with id [%s] not found".formatted(id))
                 );
     }
 
     public User getUserByEmail(String email) {
-        return userDAO.getUserByEmail(email)
+        return userCache.getByEmail(email, () -> userDAO.getUserByEmail(email))
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Customer with email [%s] not found".formatted(email))
                 );
     }
 
-    private ResponseEntity<?> checkEmailExists(String email) {
-        if (userDAO.existsUserWithEmail(email)) {
-            ApiError error = new ApiError("Validation", "email", "Email already exists");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        }
-        return ResponseEntity.ok("Email checked.");
-    }
-
-    public ResponseEntity<?> passwordValidator(String password, String retPassword) {
-        if (password.length() < 8 || password.length() > 32) {
-            ApiError error = new ApiError("Validation", "password", "Password length should be between 8 and 32 characters");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        }
-        if (!password.matches(".*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>/?].*")) {
-            ApiError error = new ApiError("Validation", "password", "Password should contain at least one special character");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        }
-        if (!password.matches(".*\\d.*")) {
-            ApiError error = new ApiError("Validation", "password", "Password should contain at least one digit");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        }
-        if (password.contains(" ")) {
-            ApiError error = new ApiError("Validation", "password", "Password should not contain spaces");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        }
-        if (!password.equals(retPassword)) {
-            ApiError error = new ApiError("Validation", "retPassword", "Invalid retPassword");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        }
-        return ResponseEntity.ok("password is approved.");
-    }
-
-    private ResponseEntity<?> checkFullName(String firstname, String lastname) {
-        if (firstname.length() > 50) {
-            ApiError error = new ApiError("Validation", "firstname", "Invalid firstname");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        }
-        if (lastname.length() > 50) {
-            ApiError error = new ApiError("Validation", "lastname", "Invalid lastname");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        }
-        return ResponseEntity.ok("fullname checked.");
-    }
-
     public ResponseEntity<?> addUser(UserRegistrationRequest userRegistrationRequest) {
-        final String regexPattern = "^(?=.{1,64}@)[A-Za-z0-9_-]+(\\.[A-Za-z0-9_-]+)*@"
-                + "[^-][A-Za-z0-9-]+(\\.[A-Za-z0-9-]+)*(\\.[A-Za-z]{2,})$";
-        if (isNullOrEmpty(userRegistrationRequest.firstname()) ||
-                isNullOrEmpty(userRegistrationRequest.lastname()) ||
-                isNullOrEmpty(userRegistrationRequest.email()) ||
-                isNullOrEmpty(userRegistrationRequest.password())) {
-            ApiError error = new ApiError("Validation", null, "Missing data");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        }
-        String firstname = userRegistrationRequest.firstname();
-        String lastname = userRegistrationRequest.lastname();
-        String email = userRegistrationRequest.email();
-        String password = userRegistrationRequest.password();
-
-        if (!checkEmailValid(email, regexPattern) || email.length() > 255) {
-            ApiError error = new ApiError("Validation", "email", "Invalid email");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        }
-        ResponseEntity<?> checkFullNameResult = checkFullName(firstname, lastname);
-        if (checkFullNameResult.getStatusCode() != HttpStatus.OK) {
-            return checkFullNameResult;
+        List<ApiError> errors = validateRegistration(userRegistrationRequest);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors.get(0));
         }
-        ResponseEntity<?> checkEmailExistsResult = checkEmailExists(email);
-        if (checkEmailExistsResult.getStatusCode() != HttpStatus.OK) {
-            return checkEmailExistsResult;
-        }
-
 
         // dodac dla pozostalych pól sprawdzenia
         // szczegolnie sprawdzic czy nie ma nikt linka takiego jak podany, jak tak to trzeba ladny error wyswietlic na froncie zeby link zostal zmieniony, bez przkierowania ani wywalania, trzeba na froncie to obsluzyc
 
         //Encrypting password
-        String generatedSecuredPasswordHash = BCrypt.hashpw(password, BCrypt.gensalt(12));
+        String generatedSecuredPasswordHash = passwordHasher.hash(userRegistrationRequest.password());
         User user = new User();
-        user.setFirstname(firstname);
-        user.setLastname(lastname);
-        user.setEmail(email);
+        user.setFirstname(userRegistrationRequest.firstname());
+        user.setLastname(userRegistrationRequest.lastname());
+        user.setEmail(userRegistrationRequest.email());
         user.setPassword(generatedSecuredPasswordHash);
-        userDAO.addUser(user);
+        // a single insert, the unique constraint decides between concurrent registrations of one e-mail
+        try {
+            userDAO.addUser(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isConstraintViolation(e, EMAIL_UNIQUE_CONSTRAINT)) {
+                ApiError error = new ApiError("Validation", "email", "Email already exists");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+            throw e;
+        }
+        userSearchIndex.update(user);
+        return ResponseEntity.ok(user.getId());
+    }
 
+    // logujemy od razu poki co po rejestracji, bez aktywacji
+    public String registrationToken(Integer userId) {
+        return generateToken(EXPIRATION_TIME_REFRESH, userId);
+    }
 
-        // logujemy od razu poki co po rejestracji, bez aktywacji
-        String accessToken = generateToken(EXPIRATION_TIME_REFRESH, user.getId());
+    // every registration check that does not need the database
+    public List<ApiError> validateRegistration(UserRegistrationRequest userRegistrationRequest) {
+        return RequestValidators.REGISTRATION.validate(userRegistrationRequest);
+    }
 
-        userDAO.addUser(user);
-        return ResponseEntity.ok(accessToken);
+    private static boolean isConstraintViolation(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return constraintName.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
     }
 
     public boolean isNullOrEmpty(String str) {
@@ -187,13 +158,11 @@ public class UserService {
                         new ResourceNotFoundException("Customer with id [%s] not found".formatted(id))
                 );
 
+        // revoked as well, refreshToken trusts the revocation list without looking for the stored token
+        tokenService.deleteAllTokens(user.getId());
         userDAO.deleteUser(user);
-    }
-
-    private boolean checkEmailValid(String email, String emailRegex) {
-        return Pattern.compile(emailRegex)
-                .matcher(email)
-                .matches();
+        userCache.invalidate(user);
+        userSearchIndex.remove(user);
     }
 
     public ResponseEntity<?> updateUser(Integer uuid, UserUpdateRequest userUpdateRequest, HttpServletRequest request) {
@@ -207,10 +176,11 @@ public class UserService {
                 );
 
         if (userUpdateRequest.password() != null) {
-            var generatedSecuredPasswordHash = BCrypt.hashpw(userUpdateRequest.password(), BCrypt.gensalt(12));
+            var generatedSecuredPasswordHash = passwordHasher.hash(userUpdateRequest.password());
             updateIfNotNull(user::setPassword, generatedSecuredPasswordHash);
         }
 
+        String previousName = user.getFullName();
         updateIfNotNull(user::setFirstname, userUpdateRequest.firstname());
         updateIfNotNull(user::setLastname, userUpdateRequest.lastname());
         updateIfNotNull(user::setEmail, userUpdateRequest.email());
@@ -221,7 +191,11 @@ public class UserService {
 //            handleProfilePicture(profilePicture, user, key);
 //            user.setProfilePicture("https://" + S3BucketName + ".s3.amazonaws.com/" + key);
 //        }
-        userDAO.updateUser(user);
+        saveUser(user);
+        userSearchIndex.update(user);
+        if (!previousName.equals(user.getFullName())) {
+            issueBoardCache.invalidateAssignee(user.getId());
+        }
         return ResponseEntity.ok("User updated successfully");
     }
 
@@ -283,6 +257,7 @@ public class UserService {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("User already activated");
             user.setActive(true);
             userRepository.save(user);
+            userCache.invalidate(user);
             return ResponseEntity.ok("Account activated successfully.");
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Invalid token: User not found");
@@ -296,64 +271,70 @@ public class UserService {
         User user = getUserById(userId);
         String currentPassword = changePasswordRequest.currentPassword();
         String newPassword = changePasswordRequest.newPassword();
-        String retNewPassword = changePasswordRequest.retNewPassword();
-        if (!BCrypt.checkpw(currentPassword, user.getPassword())) {
+        if (!passwordHasher.matches(currentPassword, user.getPassword())) {
             ApiError error = new ApiError("Validation", "Password", "Invalid password");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         }
-        ResponseEntity<?> passwordValidationResult = passwordValidator(newPassword, retNewPassword);
-        if (passwordValidationResult.getStatusCode() != HttpStatus.OK) {
-            return passwordValidationResult;
+        List<ApiError> errors = RequestValidators.CHANGE_PASSWORD.validate(changePasswordRequest);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors.get(0));
         }
-        String hashedNewPassword = BCrypt.hashpw(newPassword, BCrypt.gensalt(12));
+        String hashedNewPassword = passwordHasher.hash(newPassword);
         user.setPassword(hashedNewPassword);
-        userDAO.updateUser(user);
+        saveUser(user);
         tokenService.deleteAllTokens(userId);
         return ResponseEntity.ok().build();
     }
 
+    public void updatePasswordHash(User user, String passwordHash) {
+        user.setPassword(passwordHash);
+        saveUser(user);
+    }
+
+    private void saveUser(User user) {
+        userDAO.updateUser(user);
+        userCache.invalidate(user);
+    }
+
+    public ResponseEntity<?> searchUsers(String query, Integer limit, HttpServletRequest request) {
+        ResponseEntity<?> checkAuthorizationResult = checkAuthorization(request);
+        if (checkAuthorizationResult.getStatusCode() != HttpStatus.OK) {
+            return checkAuthorizationResult;
+        }
+        return ResponseEntity.ok(userSearchIndex.search(query, limit));
+    }
+
+    public CacheStats getUserCacheStats() {
+        return userCache.getStats();
+    }
+
     public ResponseEntity<?> checkAuthorization(HttpServletRequest request) {
-        if (checkAuthorizationHeader(request)) {
-            try {
-                if (checkLoggedUser(request)) {
-                    return ResponseEntity.ok("Account logged in successfully.");
-                } else {
-                    ApiError error = new ApiError("Access", null, "Login failed");
-                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
-                }
-            } catch (Exception e) {
-                ApiError error = new ApiError("Access", null, "Invalid token");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
-            }
-        } else {
-            ApiError error = new ApiError("General", null, "Missing authorization");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        JwtAuthenticator.Failure failure = jwtAuthenticator.failure(request);
+        if (failure == null) {
+            return ResponseEntity.ok("Account logged in successfully.");
         }
+        return switch (failure) {
+            case MISSING -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiError("General", null, "Missing authorization"));
+            case EXPIRED -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiError("Access", null, "Login failed"));
+            case INVALID -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiError("Access", null, "Invalid token"));
+        };
     }
 
     boolean checkAuthorizationHeader(HttpServletRequest request) {
-        String authorizationHeader = request.getHeader("Authorization");
-        return authorizationHeader != null && authorizationHeader.startsWith("Bearer ");
+        return jwtAuthenticator.failure(request) != JwtAuthenticator.Failure.MISSING;
     }
 
     boolean checkLoggedUser(HttpServletRequest request) {
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String jwtToken = authorizationHeader.substring(7);
-            return tokenService.validateAccessToken(jwtToken);
-        }
-        return false;
+        return jwtAuthenticator.authenticate(request) != null;
     }
 
+    // the token is verified once per request by JwtAuthenticationFilter
     public int getUserIDFromAccessToken(HttpServletRequest request) {
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String jwtToken = authorizationHeader.substring(7);
-            if (tokenService.validateAccessToken(jwtToken)) {
-                return tokenService.getUserIdFromToken(jwtToken);
-            }
-        }
-        return -1;
+        AuthenticatedUser user = jwtAuthenticator.authenticate(request);
+        return user != null ? user.userId() : -1;
     }
 
     public ResponseEntity<?> getUserDetails(Integer uuid, UserService userService, HttpServletRequest request) {
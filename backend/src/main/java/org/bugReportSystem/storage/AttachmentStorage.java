@@ -0,0 +1,16 @@
+package org.bugReportSystem.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface AttachmentStorage {
+    // streams content to a temporary key, hashing it on the way
+    StoredObject upload(InputStream content, String contentType) throws IOException;
+
+    // moves the temporary object to key, or drops it when key already holds the same content
+    void promote(String temporaryKey, String key) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,78 @@
+package org.bugReportSystem.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.util.HexFormat;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "attachments.storage", havingValue = "local", matchIfMissing = true)
+public class LocalAttachmentStorage implements AttachmentStorage {
+    private static final String TEMPORARY_DIRECTORY = "tmp";
+    private final Path root;
+
+    public LocalAttachmentStorage(@Value("${attachments.local.root:attachments}") Path root) throws IOException {
+        this.root = root.toAbsolutePath();
+        Files.createDirectories(this.root.resolve(TEMPORARY_DIRECTORY));
+    }
+
+    @Override
+    public StoredObject upload(InputStream content, String contentType) throws IOException {
+        String temporaryKey = TEMPORARY_DIRECTORY + "/" + UUID.randomUUID();
+        Path temporary = resolve(temporaryKey);
+        DigestInputStream digestStream = new DigestInputStream(content, Digests.sha256());
+        long size;
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            size = digestStream.transferTo(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        return new StoredObject(temporaryKey, size, HexFormat.of().formatHex(digestStream.getMessageDigest().digest()));
+    }
+
+    @Override
+    public void promote(String temporaryKey, String key) throws IOException {
+        Path temporary = resolve(temporaryKey);
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            Files.delete(temporary);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // a concurrent upload of the same content won
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Key [%s] is outside the storage root".formatted(key));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,129 @@
+package org.bugReportSystem.storage;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "attachments.storage", havingValue = "s3")
+public class S3AttachmentStorage implements AttachmentStorage {
+    private static final String TEMPORARY_PREFIX = "tmp/";
+    private static final int NOT_FOUND = 404;
+    private final S3Client s3;
+    private final String bucket;
+    private final int partSize;
+
+    // one client for the whole application, it owns a connection pool
+    public S3AttachmentStorage(@Value("${aws.s3.access-key-id}") String accessKeyId,
+                               @Value("${aws.s3.secret-access-key}") String secretAccessKey,
+                               @Value("${aws.s3.region}") Region region,
+                               @Value("${aws.s3.bucket}") String bucket,
+                               @Value("${aws.s3.endpoint:}") String endpoint,
+                               @Value("${attachments.s3.part-size-bytes:8388608}") int partSize) {
+        S3ClientBuilder builder = S3Client.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKeyId, secretAccessKey)))
+                .region(region);
+        if (!endpoint.isEmpty()) {
+            // S3-compatible stores such as MinIO
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        this.s3 = builder.build();
+        this.bucket = bucket;
+        this.partSize = partSize;
+    }
+
+    // at most one part is held in memory; content smaller than a part goes up as a single PUT
+    @Override
+    public StoredObject upload(InputStream content, String contentType) throws IOException {
+        String temporaryKey = TEMPORARY_PREFIX + UUID.randomUUID();
+        MessageDigest digest = Digests.sha256();
+        byte[] buffer = new byte[partSize];
+        int read = content.readNBytes(buffer, 0, partSize);
+        digest.update(buffer, 0, read);
+        if (read < partSize) {
+            s3.putObject(b -> b.bucket(bucket).key(temporaryKey).contentType(contentType),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read));
+            return new StoredObject(temporaryKey, read, HexFormat.of().formatHex(digest.digest()));
+        }
+        String uploadId = s3.createMultipartUpload(b -> b.bucket(bucket).key(temporaryKey).contentType(contentType))
+                .uploadId();
+        List<CompletedPart> parts = new ArrayList<>();
+        long size = 0;
+        try {
+            while (read > 0) {
+                int partNumber = parts.size() + 1;
+                String eTag = s3.uploadPart(b -> b.bucket(bucket).key(temporaryKey).uploadId(uploadId).partNumber(partNumber),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                size += read;
+                read = content.readNBytes(buffer, 0, partSize);
+                digest.update(buffer, 0, read);
+            }
+            s3.completeMultipartUpload(b -> b.bucket(bucket).key(temporaryKey).uploadId(uploadId)
+                    .multipartUpload(m -> m.parts(parts)));
+        } catch (IOException | RuntimeException e) {
+            s3.abortMultipartUpload(b -> b.bucket(bucket).key(temporaryKey).uploadId(uploadId));
+            throw e;
+        }
+        return new StoredObject(temporaryKey, size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    @Override
+    public void promote(String temporaryKey, String key) {
+        if (!exists(key)) {
+            s3.copyObject(b -> b.sourceBucket(bucket).sourceKey(temporaryKey).destinationBucket(bucket).destinationKey(key));
+        }
+        s3.deleteObject(b -> b.bucket(bucket).key(temporaryKey));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return s3.getObject(b -> b.bucket(bucket).key(key));
+        } catch (NoSuchKeyException e) {
+            throw new IOException("Object [%s] not found".formatted(key), e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        s3.deleteObject(b -> b.bucket(bucket).key(key));
+    }
+
+    private boolean exists(String key) {
+        try {
+            s3.headObject(b -> b.bucket(bucket).key(key));
+            return true;
+        } catch (S3Exception e) {
+            if (e.statusCode() == NOT_FOUND) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        s3.close();
+    }
+}
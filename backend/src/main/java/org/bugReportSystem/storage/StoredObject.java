@@ -0,0 +1,5 @@
+package org.bugReportSystem.storage;
+
+// an upload parked under a temporary key until it is promoted to its content address
+public record StoredObject(String temporaryKey, long size, String sha256) {
+}
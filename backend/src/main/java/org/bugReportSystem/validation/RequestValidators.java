@@ -0,0 +1,86 @@
+package org.bugReportSystem.validation;
+
+import org.bugReportSystem.dtos.IssueDTO;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+import org.bugReportSystem.requests.ChangePasswordRequest;
+import org.bugReportSystem.requests.IssueMoveRequest;
+import org.bugReportSystem.requests.IssueUpdateRequest;
+import org.bugReportSystem.requests.LoginRequest;
+import org.bugReportSystem.requests.PasswordResetRequest;
+import org.bugReportSystem.requests.UserRegistrationRequest;
+
+import java.util.Objects;
+
+import static org.bugReportSystem.validation.Rules.email;
+import static org.bugReportSystem.validation.Rules.maxLength;
+import static org.bugReportSystem.validation.Rules.notBlank;
+import static org.bugReportSystem.validation.Rules.oneOf;
+import static org.bugReportSystem.validation.Rules.optionalNumber;
+import static org.bugReportSystem.validation.Rules.password;
+import static org.bugReportSystem.validation.Rules.required;
+
+// one validator per request type, built once
+public final class RequestValidators {
+    // varchar(255) columns
+    public static final int MAX_TEXT_LENGTH = 255;
+    public static final int MAX_NAME_LENGTH = 50;
+
+    public static final Validator<UserRegistrationRequest> REGISTRATION = Validator.<UserRegistrationRequest>builder()
+            .guard(null, r -> !isNullOrEmpty(r.firstname()) && !isNullOrEmpty(r.lastname())
+                    && !isNullOrEmpty(r.email()) && !isNullOrEmpty(r.password()), "Missing data")
+            .field("email", UserRegistrationRequest::email, email("Invalid email"))
+            .field("firstname", UserRegistrationRequest::firstname, maxLength(MAX_NAME_LENGTH, "Invalid firstname"))
+            .field("lastname", UserRegistrationRequest::lastname, maxLength(MAX_NAME_LENGTH, "Invalid lastname"))
+            .build();
+
+    public static final Validator<ChangePasswordRequest> CHANGE_PASSWORD = Validator.<ChangePasswordRequest>builder()
+            .field("password", ChangePasswordRequest::newPassword, password())
+            .check("retPassword", r -> Objects.equals(r.newPassword(), r.retNewPassword()), "Invalid retPassword")
+            .build();
+
+    public static final Validator<PasswordResetRequest> PASSWORD_RESET = Validator.<PasswordResetRequest>builder()
+            .check("retPassword", r -> Objects.equals(r.password(), r.retPassword()), "Passwords should be the same.")
+            .field("password", PasswordResetRequest::password, password())
+            .build();
+
+    public static final Validator<LoginRequest> LOGIN = Validator.<LoginRequest>builder()
+            .guard("Both", r -> !isNullOrEmpty(r.email()) || !isNullOrEmpty(r.password()), "Missing data")
+            .field("E-mail", LoginRequest::email, required("Missing e-mail"))
+            .field("Password", LoginRequest::password, required("Missing password"))
+            .build();
+
+    public static final Validator<IssueDTO> ISSUE = Validator.<IssueDTO>builder()
+            .field("title", IssueDTO::title, notBlank("Missing title"), maxLength(MAX_TEXT_LENGTH, "Title is too long"))
+            .field("description", IssueDTO::description, required("Missing description"),
+                    maxLength(MAX_TEXT_LENGTH, "Description is too long"))
+            .field("reporterEmail", IssueDTO::reporterEmail, required("Missing reporter e-mail"),
+                    maxLength(MAX_TEXT_LENGTH, "Reporter e-mail is too long"))
+            .build();
+
+    public static final Validator<IssueUpdateRequest> ISSUE_UPDATE = Validator.<IssueUpdateRequest>builder()
+            .check("id", r -> r.id() != null, "Missing id")
+            .field("title", IssueUpdateRequest::title, notBlank("Missing title"),
+                    maxLength(MAX_TEXT_LENGTH, "Title is too long"))
+            .field("description", IssueUpdateRequest::description, required("Missing description"),
+                    maxLength(MAX_TEXT_LENGTH, "Description is too long"))
+            .field("reporterEmail", IssueUpdateRequest::reporterEmail, required("Missing reporter e-mail"),
+                    maxLength(MAX_TEXT_LENGTH, "Reporter e-mail is too long"))
+            .field("priority", IssueUpdateRequest::priority, oneOf(Priority.class, "Invalid priority"))
+            .field("column", IssueUpdateRequest::column, oneOf(IssueColumn.class, "Invalid column"))
+            .field("assignee", r -> r.assignee() == null ? null : r.assignee().orElse(null),
+                    optionalNumber("Invalid assignee"))
+            .build();
+
+    public static final Validator<IssueMoveRequest> ISSUE_MOVE = Validator.<IssueMoveRequest>builder()
+            .check("id", r -> r.id() != null, "Missing id")
+            .field("column", IssueMoveRequest::column, oneOf(IssueColumn.class, "Invalid column"))
+            .build();
+
+    private RequestValidators() {
+    }
+
+    private static boolean isNullOrEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
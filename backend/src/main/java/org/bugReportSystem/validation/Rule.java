@@ -0,0 +1,7 @@
+package org.bugReportSystem.validation;
+
+// returns null when the value passes, otherwise the error message
+@FunctionalInterface
+public interface Rule {
+    String check(String value);
+}
@@ -0,0 +1,106 @@
+package org.bugReportSystem.validation;
+
+import java.util.regex.Pattern;
+
+// Reusable rules, all patterns and lookup tables are built once when the class loads.
+public final class Rules {
+    private static final Pattern EMAIL = Pattern.compile("^(?=.{1,64}@)[A-Za-z0-9_-]+(\\.[A-Za-z0-9_-]+)*@"
+            + "[^-][A-Za-z0-9-]+(\\.[A-Za-z0-9-]+)*(\\.[A-Za-z]{2,})$");
+    private static final boolean[] SPECIAL = new boolean[128];
+    public static final int MIN_PASSWORD_LENGTH = 8;
+    public static final int MAX_PASSWORD_LENGTH = 32;
+    private static final String PASSWORD_LENGTH = "Password length should be between %d and %d characters"
+            .formatted(MIN_PASSWORD_LENGTH, MAX_PASSWORD_LENGTH);
+
+    static {
+        for (char c : "!@#$%^&*()_+-=[]{};':\"\\|,.<>/?".toCharArray()) {
+            SPECIAL[c] = true;
+        }
+    }
+
+    private Rules() {
+    }
+
+    public static Rule required(String message) {
+        return value -> value == null || value.isEmpty() ? message : null;
+    }
+
+    public static Rule notBlank(String message) {
+        return value -> value == null || value.isBlank() ? message : null;
+    }
+
+    public static Rule maxLength(int maxLength, String message) {
+        return value -> value != null && value.length() > maxLength ? message : null;
+    }
+
+    public static Rule email(String message) {
+        return value -> value == null || value.length() > 255 || !EMAIL.matcher(value).matches() ? message : null;
+    }
+
+    // case-insensitive enum constant name, without upper-casing the value first
+    public static <E extends Enum<E>> Rule oneOf(Class<E> type, String message) {
+        E[] constants = type.getEnumConstants();
+        return value -> {
+            if (value == null) {
+                return message;
+            }
+            for (E constant : constants) {
+                if (constant.name().equalsIgnoreCase(value)) {
+                    return null;
+                }
+            }
+            return message;
+        };
+    }
+
+    // null passes, otherwise one to nine ASCII digits so the value always fits an int
+    public static Rule optionalNumber(String message) {
+        return value -> {
+            if (value == null) {
+                return null;
+            }
+            if (value.isEmpty() || value.length() > 9) {
+                return message;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    return message;
+                }
+            }
+            return null;
+        };
+    }
+
+    // one pass over the password collects every character class, reported in the order the checks always had
+    public static Rule password() {
+        return value -> {
+            if (value == null || value.length() < MIN_PASSWORD_LENGTH || value.length() > MAX_PASSWORD_LENGTH) {
+                return PASSWORD_LENGTH;
+            }
+            boolean special = false;
+            boolean digit = false;
+            boolean space = false;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < SPECIAL.length && SPECIAL[c]) {
+                    special = true;
+                } else if (c >= '0' && c <= '9') {
+                    digit = true;
+                } else if (c == ' ') {
+                    space = true;
+                }
+            }
+            if (!special) {
+                return "Password should contain at least one special character";
+            }
+            if (!digit) {
+                return "Password should contain at least one digit";
+            }
+            if (space) {
+                return "Password should not contain spaces";
+            }
+            return null;
+        };
+    }
+}
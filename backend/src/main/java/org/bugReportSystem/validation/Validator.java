@@ -0,0 +1,107 @@
+package org.bugReportSystem.validation;
+
+import org.bugReportSystem.exception.ApiError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Checks run in declaration order, each field reports only its first failing rule. A valid request allocates
+// nothing; a failed guard stops the remaining checks, which may rely on it.
+public final class Validator<T> {
+    public static final String TYPE = "Validation";
+    private final Check<T>[] checks;
+
+    private Validator(Check<T>[] checks) {
+        this.checks = checks;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public List<ApiError> validate(T request) {
+        if (request == null) {
+            return List.of(new ApiError(TYPE, null, "Missing data"));
+        }
+        List<ApiError> errors = null;
+        for (Check<T> check : checks) {
+            String message = check.test(request);
+            if (message == null) {
+                continue;
+            }
+            if (errors == null) {
+                errors = new ArrayList<>(2);
+            }
+            errors.add(new ApiError(TYPE, check.field, message));
+            if (check.guard) {
+                break;
+            }
+        }
+        return errors == null ? List.of() : errors;
+    }
+
+    private abstract static class Check<T> {
+        private final String field;
+        private final boolean guard;
+
+        private Check(String field, boolean guard) {
+            this.field = field;
+            this.guard = guard;
+        }
+
+        abstract String test(T request);
+    }
+
+    public static final class Builder<T> {
+        private final List<Check<T>> checks = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        // stops validation when the predicate fails
+        public Builder<T> guard(String field, Predicate<T> predicate, String message) {
+            checks.add(new Check<>(field, true) {
+                @Override
+                String test(T request) {
+                    return predicate.test(request) ? null : message;
+                }
+            });
+            return this;
+        }
+
+        public Builder<T> field(String field, Function<T, String> getter, Rule... rules) {
+            Rule[] fieldRules = rules.clone();
+            checks.add(new Check<>(field, false) {
+                @Override
+                String test(T request) {
+                    String value = getter.apply(request);
+                    for (Rule rule : fieldRules) {
+                        String message = rule.check(value);
+                        if (message != null) {
+                            return message;
+                        }
+                    }
+                    return null;
+                }
+            });
+            return this;
+        }
+
+        public Builder<T> check(String field, Predicate<T> predicate, String message) {
+            checks.add(new Check<>(field, false) {
+                @Override
+                String test(T request) {
+                    return predicate.test(request) ? null : message;
+                }
+            });
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public Validator<T> build() {
+            return new Validator<>(checks.toArray(new Check[0]));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.bugReportSystem.repositories;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.bugReportSystem.dtos.IssueBoardRow;
+import org.bugReportSystem.entities.Issue;
+import org.bugReportSystem.entities.User;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class IssueRepositoryTests {
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25, 250})
+    void boardColumnIsReadWithOneStatementRegardlessOfSize(int boardSize) {
+        for (int i = 0; i < boardSize; i++) {
+            User assignee = entityManager.persist(new User("First" + i, "Last" + i, "user" + i + "@example.com", "hash"));
+            Issue issue = new Issue("Issue " + i, IssueColumn.TODO, Priority.MEDIUM, "description", "reporter@example.com");
+            issue.setAssignee(assignee);
+            entityManager.persist(issue);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<IssueBoardRow> rows = issueRepository.findBoardColumn(IssueColumn.TODO);
+
+        assertEquals(boardSize, rows.size());
+        assertEquals("First0 Last0", rows.get(0).assigneeName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listingLoadsAssigneesWithTheIssues() {
+        for (int i = 0; i < 3; i++) {
+            User assignee = entityManager.persist(new User("First" + i, "Last" + i, "user" + i + "@example.com", "hash"));
+            Issue issue = new Issue("Issue " + i, IssueColumn.DONE, Priority.MEDIUM, "description", "reporter@example.com");
+            issue.setAssignee(assignee);
+            entityManager.persist(issue);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Issue> issues = issueRepository.findAllWithAssigneeByColumn(IssueColumn.DONE);
+
+        assertEquals(3, issues.size());
+        assertTrue(issues.stream().allMatch(issue -> Hibernate.isInitialized(issue.getAssignee())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listedIssuesAreSerializedWithoutTheAssigneesPassword() throws Exception {
+        User assignee = entityManager.persist(new User("First", "Last", "assignee@example.com", "secret-hash"));
+        Issue issue = new Issue("Issue", IssueColumn.TODO, Priority.MEDIUM, "description", "reporter@example.com");
+        issue.setAssignee(assignee);
+        entityManager.persist(issue);
+        entityManager.flush();
+        entityManager.clear();
+
+        JsonNode json = new ObjectMapper().findAndRegisterModules()
+                .valueToTree(issueRepository.findAllWithAssigneeByColumn(IssueColumn.TODO));
+
+        assertEquals("assignee@example.com", json.get(0).get("assignee").get("email").asText());
+        assertFalse(json.get(0).get("assignee").has("password"));
+        assertFalse(json.toString().contains("secret-hash"));
+    }
+
+    @Test
+    void rankRewriteKeepsUpdatedAtAndVersion() {
+        Issue issue = entityManager.persist(new Issue("Issue", IssueColumn.DONE, Priority.MEDIUM, "description",
+                "reporter@example.com"));
+        entityManager.flush();
+        entityManager.clear();
+        Issue before = issueRepository.findById(issue.getId()).orElseThrow();
+        entityManager.clear();
+
+        assertEquals(0, issueRepository.updateRank(issue.getId(), before.getVersion() + 1, "i"));
+        assertEquals(1, issueRepository.updateRank(issue.getId(), before.getVersion(), "i"));
+        entityManager.clear();
+
+        Issue after = issueRepository.findById(issue.getId()).orElseThrow();
+        assertEquals("i", after.getRank());
+        assertEquals(before.getVersion(), after.getVersion());
+        assertEquals(before.getUpdatedAt(), after.getUpdatedAt());
+    }
+
+    @Test
+    void issuesWithoutAColumnLandInTheBacklog() {
+        Issue issue = new Issue("No column", "description", "reporter@example.com");
+        issue.setIssueColumn(null);
+        entityManager.persist(issue);
+        entityManager.persist(new Issue("Default column", "description", "reporter@example.com"));
+        entityManager.flush();
+
+        assertEquals(2, issueRepository.findBoardColumn(IssueColumn.BACKLOG).size());
+    }
+
+    @Test
+    void pagesFollowTheKeysetAndApplyOnlyTheGivenFilters() {
+        User assignee = entityManager.persist(new User("First", "Last", "assignee@example.com", "hash"));
+        for (int i = 0; i < 10; i++) {
+            Issue issue = new Issue("Issue " + i, i % 2 == 0 ? IssueColumn.TODO : IssueColumn.DONE,
+                    i < 6 ? Priority.HIGH : Priority.LOW, "description", "reporter@example.com");
+            if (i % 4 == 0) {
+                issue.setAssignee(assignee);
+            }
+            entityManager.persist(issue);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Issue> first = issueRepository.findPage(0, IssueColumn.TODO, null, null, null, 3);
+        List<Issue> second = issueRepository.findPage(first.get(2).getId(), IssueColumn.TODO, null, null, null, 3);
+        assertEquals(List.of("Issue 0", "Issue 2", "Issue 4"), first.stream().map(Issue::getTitle).toList());
+        assertEquals(List.of("Issue 6", "Issue 8"), second.stream().map(Issue::getTitle).toList());
+
+        assertEquals(10, issueRepository.findPage(0, null, null, null, null, 20).size());
+        assertEquals(List.of("Issue 0", "Issue 4"), issueRepository.findPage(0, IssueColumn.TODO, Priority.HIGH,
+                assignee.getId(), "reporter@example.com", 20).stream().map(Issue::getTitle).toList());
+    }
+}
@@ -0,0 +1,45 @@
+package org.bugReportSystem.repositories;
+
+import org.bugReportSystem.entities.Token;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class TokenRepositoryTests {
+    private static final String DIGEST = "a".repeat(63) + "1";
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void tokensAreFoundByTheirDigestOnly() {
+        entityManager.persist(new Token(7, DIGEST, Instant.now().plusSeconds(60)));
+        entityManager.persist(new Token(7, "b".repeat(64), Instant.now().plusSeconds(60)));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(7, tokenRepository.findByDigest(DIGEST).orElseThrow().getUserID());
+        assertTrue(tokenRepository.findByDigest("a".repeat(64)).isEmpty());
+    }
+
+    @Test
+    void digestIsUnique() {
+        entityManager.persist(new Token(7, DIGEST, Instant.now().plusSeconds(60)));
+
+        // identity ids are inserted right away
+        assertThrows(ConstraintViolationException.class,
+                () -> entityManager.persist(new Token(8, DIGEST, Instant.now().plusSeconds(60))));
+    }
+}
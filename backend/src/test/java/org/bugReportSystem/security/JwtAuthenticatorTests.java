@@ -0,0 +1,125 @@
+package org.bugReportSystem.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.bugReportSystem.daos.TokenDAO;
+import org.bugReportSystem.services.PasswordHasher;
+import org.bugReportSystem.services.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class JwtAuthenticatorTests {
+    private static final String KEY = "test-key-that-is-long-enough-for-hmac-sha-512-signing-of-tokens!";
+
+    private JwtAuthenticator jwtAuthenticator;
+
+    @BeforeEach
+    void setUp() {
+        TokenService tokenService = new TokenService(mock(TokenDAO.class), KEY, 10, mock(PasswordHasher.class),
+                mock(TokenRevocationList.class));
+        jwtAuthenticator = new JwtAuthenticator(tokenService, 100);
+    }
+
+    @Test
+    void validTokenAuthenticatesTheRequest() {
+        MockHttpServletRequest request = bearer(TokenService.generateToken(TokenService.EXPIRATION_TIME_ACCESS, 7));
+
+        assertNull(jwtAuthenticator.failure(request));
+        assertEquals(7, jwtAuthenticator.authenticate(request).userId());
+        assertEquals(1, jwtAuthenticator.getCachedTokenCount());
+    }
+
+    @Test
+    void requestWithoutABearerTokenIsMissing() {
+        assertEquals(JwtAuthenticator.Failure.MISSING, jwtAuthenticator.failure(new MockHttpServletRequest()));
+
+        MockHttpServletRequest basic = new MockHttpServletRequest();
+        basic.addHeader(HttpHeaders.AUTHORIZATION, "Basic amFuOnNlY3JldA==");
+        assertEquals(JwtAuthenticator.Failure.MISSING, jwtAuthenticator.failure(basic));
+    }
+
+    @Test
+    void expiredTokenIsExpired() {
+        MockHttpServletRequest request = bearer(TokenService.generateToken(-60_000, 7));
+
+        assertEquals(JwtAuthenticator.Failure.EXPIRED, jwtAuthenticator.failure(request));
+        assertEquals(0, jwtAuthenticator.getCachedTokenCount());
+    }
+
+    @Test
+    void malformedOrForeignTokensAreInvalid() {
+        String foreign = Jwts.builder()
+                .setSubject("7")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("another-key-that-is-long-enough-for-hmac-sha-512-signing-tokens!"
+                        .getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+
+        assertEquals(JwtAuthenticator.Failure.INVALID, jwtAuthenticator.failure(bearer("not-a-jwt")));
+        assertEquals(JwtAuthenticator.Failure.INVALID, jwtAuthenticator.failure(bearer("")));
+        assertEquals(JwtAuthenticator.Failure.INVALID, jwtAuthenticator.failure(bearer(foreign)));
+        assertEquals(0, jwtAuthenticator.getCachedTokenCount());
+    }
+
+    @Test
+    void refreshTokenIsNotABearerToken() {
+        MockHttpServletRequest request = bearer(TokenService.generateRefreshToken(7));
+
+        assertEquals(JwtAuthenticator.Failure.INVALID, jwtAuthenticator.failure(request));
+        assertEquals(0, jwtAuthenticator.getCachedTokenCount());
+    }
+
+    @Test
+    void tokenWithoutATypeIsStillAccepted() {
+        String legacy = Jwts.builder()
+                .setSubject("7")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(KEY.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+
+        assertNull(jwtAuthenticator.failure(bearer(legacy)));
+    }
+
+    @Test
+    void filterAuthenticatesApiRequestsOnly() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtAuthenticator);
+        String token = TokenService.generateToken(TokenService.EXPIRATION_TIME_ACCESS, 7);
+
+        MockHttpServletRequest api = bearer(token);
+        api.setRequestURI("/api/issues");
+        filter.doFilter(api, new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(api.getAttribute(AuthenticatedUser.ATTRIBUTE));
+
+        MockHttpServletRequest failed = bearer("not-a-jwt");
+        failed.setRequestURI("/api/issues");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(failed, new MockHttpServletResponse(), chain);
+        // the endpoint decides, the request still goes through
+        assertNotNull(chain.getRequest());
+        assertEquals(JwtAuthenticator.Failure.INVALID, failed.getAttribute(JwtAuthenticator.FAILURE_ATTRIBUTE));
+
+        MockHttpServletRequest other = bearer(token);
+        other.setRequestURI("/index.html");
+        filter.doFilter(other, new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(other.getAttribute(AuthenticatedUser.ATTRIBUTE));
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,59 @@
+package org.bugReportSystem.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoginThrottleTests {
+    private static final long WINDOW_START = 60_000L * 1000;
+
+    @Test
+    void fullWindowWaitsUntilItBecomesThePreviousOne() {
+        LoginThrottle throttle = new LoginThrottle(60, 5, 50, 100);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, throttle.acquire("jan@example.com", "10.0.0.1", WINDOW_START + i));
+        }
+        // rejected attempts are not counted, the window is full until it starts sliding out
+        assertEquals(60, throttle.acquire("jan@example.com", "10.0.0.1", WINDOW_START));
+        assertEquals(0, throttle.acquire("anna@example.com", "10.0.0.1", WINDOW_START));
+    }
+
+    @Test
+    void previousWindowCountsForThePartStillInside() {
+        LoginThrottle throttle = new LoginThrottle(60, 5, 50, 100);
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire("jan@example.com", "10.0.0.1", WINDOW_START);
+        }
+        long halfwayThroughNext = WINDOW_START + 90_000;
+        // half of the previous 5 attempts are left, so 3 more fit before the estimate reaches 5
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.acquire("Jan@Example.com", "10.0.0.1", halfwayThroughNext));
+        }
+        // 2.5 + 3 drops below 5 once 60% of the previous window has slid out, 6 seconds later
+        assertEquals(6, throttle.acquire("jan@example.com", "10.0.0.1", halfwayThroughNext));
+        assertEquals(0, throttle.acquire("jan@example.com", "10.0.0.1", WINDOW_START + 2 * 60_000));
+    }
+
+    @Test
+    void addressLimitAppliesAcrossEmails() {
+        LoginThrottle throttle = new LoginThrottle(60, 5, 3, 100);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.acquire("user" + i + "@example.com", "10.0.0.1", WINDOW_START));
+        }
+        assertEquals(60, throttle.acquire("other@example.com", "10.0.0.1", WINDOW_START));
+        assertEquals(0, throttle.acquire("other@example.com", "10.0.0.2", WINDOW_START));
+    }
+
+    @Test
+    void newKeysPastTheLimitDoNotShareACounter() {
+        LoginThrottle throttle = new LoginThrottle(60, 2, 50, 2);
+        throttle.acquire("jan@example.com", "10.0.0.1", WINDOW_START);
+        // the e-mail map is full now, sprayed addresses are not tracked and do not lock anybody else out
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, throttle.acquire("spray" + i + "@example.com", "10.0.0.1", WINDOW_START));
+        }
+        assertEquals(0, throttle.acquire("anna@example.com", "10.0.0.1", WINDOW_START));
+        assertEquals(0, throttle.acquire("jan@example.com", "10.0.0.1", WINDOW_START));
+        assertEquals(60, throttle.acquire("jan@example.com", "10.0.0.1", WINDOW_START));
+    }
+}
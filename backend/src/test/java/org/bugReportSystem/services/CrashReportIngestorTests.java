@@ -0,0 +1,22 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.requests.CrashReportRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CrashReportIngestorTests {
+
+    @Test
+    void queuedReportsKeepOnlyWhatTheIssueStores() {
+        String trace = "java.lang.IllegalStateException: boom\n" + "\tat org.example.Service.run(Service.java:42)\n".repeat(5000);
+        CrashReportRequest report = new CrashReportRequest(null, "x".repeat(10_000), trace, null);
+
+        CrashReportIngestor.PendingReport pending = CrashReportIngestor.pending(report);
+
+        assertEquals(CrashReportIngestor.fingerprint(report), pending.fingerprint());
+        assertEquals("java.lang.IllegalStateException: boom", pending.title());
+        assertEquals(IssueService.MAX_TEXT_LENGTH, pending.description().length());
+        assertEquals(IssueService.CRASH_REPORTER, pending.reporterEmail());
+    }
+}
@@ -0,0 +1,71 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.dtos.IssueBoardRow;
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+import org.bugReportSystem.events.PgNotificationListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IssueBoardCacheTests {
+
+    @Test
+    void renamingAnAssigneeDropsOnlyTheColumnsShowingThem() {
+        IssueBoardCache cache = new IssueBoardCache(listener(true), 100);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(IssueColumn.TODO, () -> {
+            loads.incrementAndGet();
+            return List.of(row(1, IssueColumn.TODO, 7, "Jan Kowalski"));
+        });
+        cache.get(IssueColumn.DONE, () -> {
+            loads.incrementAndGet();
+            return List.of(row(2, IssueColumn.DONE, 8, "Anna Nowak"));
+        });
+
+        cache.invalidateAssignee(7);
+
+        IssueBoardCache.BoardColumn todo = cache.get(IssueColumn.TODO, () -> {
+            loads.incrementAndGet();
+            return List.of(row(1, IssueColumn.TODO, 7, "Jan Nowak"));
+        });
+        cache.get(IssueColumn.DONE, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertEquals("Jan Nowak", todo.issues().get(0).assigneeName());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void columnsAreNotCachedWhileChangesOfOtherNodesCannotBeHeard() {
+        IssueBoardCache cache = new IssueBoardCache(listener(false), 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(IssueColumn.TODO, () -> {
+            loads.incrementAndGet();
+            return List.of(row(1, IssueColumn.TODO, 7, "Jan Kowalski"));
+        });
+        cache.get(IssueColumn.TODO, () -> {
+            loads.incrementAndGet();
+            return List.of(row(1, IssueColumn.TODO, 7, "Jan Kowalski"));
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    private static PgNotificationListener listener(boolean connected) {
+        PgNotificationListener listener = mock(PgNotificationListener.class);
+        when(listener.isConnected()).thenReturn(connected);
+        return listener;
+    }
+
+    private static IssueBoardRow row(int id, IssueColumn column, Integer assigneeId, String assigneeName) {
+        return new IssueBoardRow(id, "Issue " + id, column, Priority.MEDIUM, "m", assigneeId, assigneeName, 0);
+    }
+}
@@ -0,0 +1,77 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.exception.NotValidResourceException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IssueRankTests {
+
+    @Test
+    void betweenIsStrictlyBetweenItsBounds() {
+        String[][] bounds = {{null, null}, {null, "a"}, {"a", null}, {"a", "b"}, {"a", "a1"}, {"az", "b"},
+                {"0001", "0002"}, {"y", "z"}, {"zz", null}};
+        for (String[] bound : bounds) {
+            String rank = IssueRank.between(bound[0], bound[1]);
+            assertTrue(bound[0] == null || bound[0].compareTo(rank) < 0, rank);
+            assertTrue(bound[1] == null || rank.compareTo(bound[1]) < 0, rank);
+            assertTrue(!rank.endsWith("0"), rank);
+        }
+    }
+
+    @Test
+    void repeatedInsertsAtTheSameSpotStayOrdered() {
+        String low = "a";
+        String high = "b";
+        for (int i = 0; i < 40; i++) {
+            String rank = IssueRank.between(low, high);
+            assertTrue(low.compareTo(rank) < 0 && rank.compareTo(high) < 0, rank);
+            high = rank;
+        }
+    }
+
+    @Test
+    void ranksEndingInZeroAreRejected() {
+        assertThrows(NotValidResourceException.class, () -> IssueRank.between("a", "a0"));
+        assertThrows(NotValidResourceException.class, () -> IssueRank.after("b00"));
+        assertThrows(NotValidResourceException.class, () -> IssueRank.between("b", "a"));
+        assertThrows(NotValidResourceException.class, () -> IssueRank.between("A", null));
+    }
+
+    @Test
+    void appendsKeepAFixedWidthAndIncrease() {
+        String last = IssueRank.after(null);
+        for (int i = 0; i < 1000; i++) {
+            String next = IssueRank.after(last);
+            assertTrue(last.compareTo(next) < 0, next);
+            assertEquals(last.length(), next.length());
+            assertTrue(!next.endsWith("0"), next);
+            last = next;
+        }
+    }
+
+    @Test
+    void appendingAfterTheLargestRankStillSortsLast() {
+        String last = "zzzzzz";
+        String next = IssueRank.after(last);
+        assertTrue(last.compareTo(next) < 0, next);
+    }
+
+    @Test
+    void spreadRanksAreIncreasingAndLeaveRoomAtTheEnd() {
+        for (int count : new int[]{1, 2, 35, 36 * 36, 100_000}) {
+            String[] ranks = IssueRank.spread(count);
+            assertEquals(count, ranks.length);
+            for (int i = 1; i < count; i++) {
+                assertTrue(ranks[i - 1].compareTo(ranks[i]) < 0, ranks[i]);
+            }
+            for (String rank : ranks) {
+                assertTrue(!rank.endsWith("0"), rank);
+            }
+            assertTrue(ranks[count - 1].compareTo("i") < 0, ranks[count - 1]);
+            assertTrue(IssueRank.after(ranks[count - 1]).compareTo(ranks[count - 1]) > 0);
+        }
+    }
+}
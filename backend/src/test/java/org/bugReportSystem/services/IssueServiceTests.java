@@ -0,0 +1,52 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.enums.IssueColumn;
+import org.bugReportSystem.enums.Priority;
+import org.bugReportSystem.exception.NotValidResourceException;
+import org.bugReportSystem.requests.IssueBulkRequest;
+import org.bugReportSystem.requests.IssueMoveRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class IssueServiceTests {
+
+    @Test
+    void cursorRoundTripsTheLastId() {
+        assertEquals(0, IssueService.decodeCursor(null));
+        assertEquals(0, IssueService.decodeCursor(""));
+        assertEquals(12345, IssueService.decodeCursor(IssueService.encodeCursor(12345)));
+    }
+
+    @Test
+    void malformedCursorIsAClientError() {
+        assertThrows(NotValidResourceException.class, () -> IssueService.decodeCursor("not base64!"));
+        assertThrows(NotValidResourceException.class, () -> IssueService.decodeCursor(IssueService.encodeCursor(1) + "x"));
+    }
+
+    @Test
+    void filterNamesAreCaseInsensitiveAndUnknownNamesAreRejected() {
+        assertEquals(IssueColumn.IN_PROGRESS, IssueColumn.fromName("in_progress"));
+        assertEquals(Priority.HIGH, Priority.fromName("High"));
+        assertThrows(NotValidResourceException.class, () -> IssueColumn.fromName("doing"));
+        assertThrows(NotValidResourceException.class, () -> Priority.fromName(null));
+    }
+
+    @Test
+    void bulkMoveToAnUnknownColumnIsRejectedBeforeTheTransaction() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        IssueService issueService = new IssueService(null, null, null, null, transactionManager, null, null);
+        IssueBulkRequest request = new IssueBulkRequest(null, null,
+                List.of(new IssueMoveRequest(1, "DONE"), new IssueMoveRequest(2, "doing")));
+
+        NotValidResourceException e = assertThrows(NotValidResourceException.class, () -> issueService.bulkUpdate(request));
+        assertEquals("move[1].column: Invalid column", e.getMessage());
+        verifyNoInteractions(transactionManager);
+    }
+}
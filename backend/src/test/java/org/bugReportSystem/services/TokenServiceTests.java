@@ -0,0 +1,120 @@
+package org.bugReportSystem.services;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.bugReportSystem.daos.TokenDAO;
+import org.bugReportSystem.entities.Token;
+import org.bugReportSystem.exception.ApiError;
+import org.bugReportSystem.exception.ResourceNotFoundException;
+import org.bugReportSystem.security.TokenRevocationList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TokenServiceTests {
+    private static final String KEY = "test-key-that-is-long-enough-for-hmac-sha-512-signing-of-tokens!";
+
+    private TokenDAO tokenDAO;
+    private TokenRevocationList tokenRevocations;
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        tokenDAO = mock(TokenDAO.class);
+        tokenRevocations = mock(TokenRevocationList.class);
+        tokenService = new TokenService(tokenDAO, KEY, 10, mock(PasswordHasher.class), tokenRevocations);
+    }
+
+    @Test
+    void tokensAreLookedUpByAFixedWidthDigest() {
+        String token = TokenService.generateRefreshToken(7);
+        when(tokenDAO.getTokenByDigest(TokenService.digest(token)))
+                .thenReturn(Optional.of(new Token(7, TokenService.digest(token), Instant.now())));
+
+        assertEquals(64, TokenService.digest(token).length());
+        assertEquals(TokenService.digest(token), TokenService.digest(token));
+        assertNotEquals(TokenService.digest(token), TokenService.digest(TokenService.generateRefreshToken(8)));
+        assertEquals(7, tokenService.getTokenByContent(token).getUserID());
+        assertThrows(ResourceNotFoundException.class, () -> tokenService.getTokenByContent(token + "x"));
+    }
+
+    @Test
+    void refreshTokenTheRevocationListVouchesForSkipsTheDatabase() {
+        when(tokenRevocations.check(any(), anyInt(), any())).thenReturn(TokenRevocationList.Status.VALID);
+
+        ResponseEntity<?> response = tokenService.refreshToken(TokenService.generateRefreshToken(7));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(7, tokenService.getUserIdFromToken((String) response.getBody()));
+        verifyNoInteractions(tokenDAO);
+    }
+
+    @Test
+    void revokedRefreshTokenIsRejected() {
+        when(tokenRevocations.check(any(), anyInt(), any())).thenReturn(TokenRevocationList.Status.REVOKED);
+
+        ResponseEntity<?> response = tokenService.refreshToken(TokenService.generateRefreshToken(7));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verifyNoInteractions(tokenDAO);
+    }
+
+    @Test
+    void accessTokensCannotBeUsedToRefresh() {
+        for (String token : new String[]{
+                TokenService.generateToken(TokenService.EXPIRATION_TIME_ACCESS, 7),
+                // handed out on registration
+                TokenService.generateToken(TokenService.EXPIRATION_TIME_REFRESH, 7)}) {
+            ResponseEntity<?> response = tokenService.refreshToken(token);
+
+            assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+            assertEquals("Invalid token", ((ApiError) response.getBody()).getMessage());
+        }
+        verifyNoInteractions(tokenDAO, tokenRevocations);
+    }
+
+    @Test
+    void unknownRefreshTokenIsRejected() {
+        when(tokenRevocations.check(any(), anyInt(), any())).thenReturn(TokenRevocationList.Status.UNKNOWN);
+        when(tokenDAO.getTokenByDigest(any())).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = tokenService.refreshToken(TokenService.generateRefreshToken(7));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    void tokensWithoutATypeAreOnlyAcceptedWhileStored() {
+        String legacy = Jwts.builder()
+                .setSubject("7")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TokenService.EXPIRATION_TIME_REFRESH))
+                .signWith(Keys.hmacShaKeyFor(KEY.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+        when(tokenRevocations.check(any(), anyInt(), any())).thenReturn(TokenRevocationList.Status.VALID);
+        when(tokenDAO.getTokenByDigest(any())).thenReturn(Optional.empty());
+
+        assertEquals(HttpStatus.UNAUTHORIZED, tokenService.refreshToken(legacy).getStatusCode());
+
+        when(tokenDAO.getTokenByDigest(TokenService.digest(legacy)))
+                .thenReturn(Optional.of(new Token(7, TokenService.digest(legacy), Instant.now())));
+
+        assertEquals(HttpStatus.OK, tokenService.refreshToken(legacy).getStatusCode());
+    }
+}
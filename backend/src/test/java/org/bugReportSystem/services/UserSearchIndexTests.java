@@ -0,0 +1,84 @@
+package org.bugReportSystem.services;
+
+import org.bugReportSystem.dtos.UserSearchResult;
+import org.bugReportSystem.events.PgNotificationListener;
+import org.bugReportSystem.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserSearchIndexTests {
+    private UserRepository userRepository;
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        index = new UserSearchIndex(userRepository, mock(PgNotificationListener.class));
+    }
+
+    @Test
+    void normalizeLowerCasesAndStripsDiacritics() {
+        assertEquals("jan", UserSearchIndex.normalize("JAN"));
+        assertEquals("lukasz zolc", UserSearchIndex.normalize("Łukasz Żółć"));
+        assertEquals("jose", UserSearchIndex.normalize("José"));
+    }
+
+    @Test
+    void compoundNamesAreIndexedWholeAndPerWord() {
+        assertArrayEquals(new String[]{"lukasz", "nowak-kowalski", "nowak", "kowalski", "l.nowak@example.com"},
+                UserSearchIndex.terms(new UserSearchResult(1, "Łukasz", "Nowak-Kowalski", "L.Nowak@example.com")));
+        assertArrayEquals(new String[]{"anna@example.com"},
+                UserSearchIndex.terms(new UserSearchResult(2, " ", null, "anna@example.com")));
+    }
+
+    @Test
+    void startupBuildIndexesEveryUserWithoutTheListener() {
+        List<UserSearchResult> users = new ArrayList<>();
+        for (int i = 1; i <= UserSearchIndex.BUILD_BATCH_SIZE + 1; i++) {
+            users.add(new UserSearchResult(i, "First" + i, "Last" + i, "user" + i + "@example.com"));
+        }
+        when(userRepository.findSearchEntriesAfter(eq(0), any(Limit.class)))
+                .thenReturn(users.subList(0, UserSearchIndex.BUILD_BATCH_SIZE));
+        when(userRepository.findSearchEntriesAfter(eq(UserSearchIndex.BUILD_BATCH_SIZE), any(Limit.class)))
+                .thenReturn(users.subList(UserSearchIndex.BUILD_BATCH_SIZE, users.size()));
+
+        index.build();
+
+        assertEquals(users.size(), index.size());
+        assertEquals(List.of(users.get(users.size() - 1)), index.search("user" + users.size() + "@", null));
+    }
+
+    @Test
+    void everyQueryTermHasToPrefixATermOfTheUser() {
+        when(userRepository.findSearchEntriesAfter(anyInt(), any(Limit.class))).thenReturn(List.of(
+                new UserSearchResult(1, "Jan", "Kowalski", "jan.kowalski@example.com"),
+                new UserSearchResult(2, "Janina", "Nowak-Kowalska", "janina@example.com"),
+                new UserSearchResult(3, "Łukasz", "Nowak", "lukasz@example.com")));
+        index.build();
+
+        assertEquals(List.of(1, 2), ids(index.search("jan", null)));
+        assertEquals(List.of(2), ids(index.search("Kowalska JAN", null)));
+        assertEquals(List.of(3), ids(index.search("łuk now", null)));
+        assertEquals(List.of(2, 3), ids(index.search("nowak", null)));
+        assertEquals(1, index.search("jan", 1).size());
+        assertTrue(index.search("  ", null).isEmpty());
+        assertTrue(index.search("jan zzz", null).isEmpty());
+    }
+
+    private static List<Integer> ids(List<UserSearchResult> results) {
+        return results.stream().map(UserSearchResult::id).sorted().toList();
+    }
+}
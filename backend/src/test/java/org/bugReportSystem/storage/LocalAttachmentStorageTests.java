@@ -0,0 +1,56 @@
+package org.bugReportSystem.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalAttachmentStorageTests {
+
+    @TempDir
+    private Path root;
+
+    @Test
+    void equalContentIsStoredOnce() throws IOException {
+        LocalAttachmentStorage storage = new LocalAttachmentStorage(root);
+        byte[] content = "java.lang.NullPointerException".getBytes(StandardCharsets.UTF_8);
+
+        StoredObject first = storage.upload(new ByteArrayInputStream(content), "text/plain");
+        StoredObject second = storage.upload(new ByteArrayInputStream(content), "text/plain");
+        assertNotEquals(first.temporaryKey(), second.temporaryKey());
+        assertEquals(first.sha256(), second.sha256());
+        assertEquals(content.length, first.size());
+
+        String key = "attachments/" + first.sha256();
+        storage.promote(first.temporaryKey(), key);
+        storage.promote(second.temporaryKey(), key);
+
+        try (InputStream stored = storage.open(key)) {
+            assertArrayEquals(content, stored.readAllBytes());
+        }
+        try (var files = Files.list(root.resolve("tmp"))) {
+            assertEquals(0, files.count());
+        }
+
+        storage.delete(key);
+        assertFalse(Files.exists(root.resolve(key)));
+    }
+
+    @Test
+    void keysCannotEscapeTheRoot() throws IOException {
+        LocalAttachmentStorage storage = new LocalAttachmentStorage(root);
+
+        assertThrows(IllegalArgumentException.class, () -> storage.open("../outside"));
+    }
+}
@@ -0,0 +1,74 @@
+package org.bugReportSystem.validation;
+
+import org.bugReportSystem.dtos.IssueDTO;
+import org.bugReportSystem.exception.ApiError;
+import org.bugReportSystem.requests.ChangePasswordRequest;
+import org.bugReportSystem.requests.IssueUpdateRequest;
+import org.bugReportSystem.requests.UserRegistrationRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Per-request validation cost, run with the test classpath:
+// mvn test-compile exec:java -Dexec.mainClass=org.bugReportSystem.validation.RequestValidatorsBenchmark -Dexec.classpathScope=test
+// or from the IDE. Add -prof gc to the runner options to see bytes allocated per operation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestValidatorsBenchmark {
+
+    private final UserRegistrationRequest registration =
+            new UserRegistrationRequest("Jan", "Kowalski", "jan.kowalski@example.com", "Secret#123");
+    private final UserRegistrationRequest invalidRegistration =
+            new UserRegistrationRequest("Jan", "Kowalski", "jan.kowalski@", "Secret#123");
+    private final ChangePasswordRequest changePassword =
+            new ChangePasswordRequest("Old#12345", "Secret#123", "Secret#123");
+    private final IssueDTO issue = new IssueDTO("Crash on login", "Stack trace attached", "jan.kowalski@example.com");
+    private final IssueUpdateRequest issueUpdate = new IssueUpdateRequest(Optional.of("42"), "Stack trace attached", 7,
+            "high", "jan.kowalski@example.com", "in_progress", "Crash on login");
+
+    @Benchmark
+    public List<ApiError> registration() {
+        return RequestValidators.REGISTRATION.validate(registration);
+    }
+
+    @Benchmark
+    public List<ApiError> invalidRegistration() {
+        return RequestValidators.REGISTRATION.validate(invalidRegistration);
+    }
+
+    @Benchmark
+    public List<ApiError> changePassword() {
+        return RequestValidators.CHANGE_PASSWORD.validate(changePassword);
+    }
+
+    @Benchmark
+    public List<ApiError> issue() {
+        return RequestValidators.ISSUE.validate(issue);
+    }
+
+    @Benchmark
+    public List<ApiError> issueUpdate() {
+        return RequestValidators.ISSUE_UPDATE.validate(issueUpdate);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RequestValidatorsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,57 @@
+package org.bugReportSystem.validation;
+
+import org.bugReportSystem.exception.ApiError;
+import org.bugReportSystem.requests.ChangePasswordRequest;
+import org.bugReportSystem.requests.IssueUpdateRequest;
+import org.bugReportSystem.requests.LoginRequest;
+import org.bugReportSystem.requests.UserRegistrationRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RequestValidatorsTests {
+
+    @Test
+    void validRequestsProduceNoErrors() {
+        assertSame(List.of(), RequestValidators.REGISTRATION.validate(
+                new UserRegistrationRequest("Jan", "Kowalski", "jan.kowalski@example.com", "Secret#123")));
+        assertSame(List.of(), RequestValidators.ISSUE_UPDATE.validate(new IssueUpdateRequest(null, "d", 7,
+                "High", "jan.kowalski@example.com", "in_progress", "t")));
+    }
+
+    @Test
+    void failedGuardStopsValidation() {
+        List<ApiError> errors = RequestValidators.REGISTRATION.validate(
+                new UserRegistrationRequest("", "Kowalski", "not an email", "Secret#123"));
+        assertEquals(1, errors.size());
+        assertEquals("Missing data", errors.get(0).getMessage());
+
+        errors = RequestValidators.LOGIN.validate(new LoginRequest("", ""));
+        assertEquals(1, errors.size());
+        assertEquals("Both", errors.get(0).getField());
+    }
+
+    @Test
+    void passwordChecksKeepTheirOrder() {
+        assertEquals("Password length should be between 8 and 32 characters", firstMessage("short"));
+        assertEquals("Password should contain at least one special character", firstMessage("longenough1"));
+        assertEquals("Password should contain at least one digit", firstMessage("longenough#"));
+        assertEquals("Password should not contain spaces", firstMessage("long enough#1"));
+    }
+
+    @Test
+    void everyFailingFieldIsReported() {
+        List<ApiError> errors = RequestValidators.ISSUE_UPDATE.validate(new IssueUpdateRequest(Optional.of("x1"), "d",
+                null, "urgent", "jan.kowalski@example.com", "TODO", " "));
+        assertEquals(List.of("id", "title", "priority", "assignee"), errors.stream().map(ApiError::getField).toList());
+    }
+
+    private static String firstMessage(String password) {
+        return RequestValidators.CHANGE_PASSWORD.validate(new ChangePasswordRequest("old", password, password))
+                .get(0).getMessage();
+    }
+}